@@ -0,0 +1,246 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import lt.lb.uncheckedutils.CancelException;
+import lt.lb.uncheckedutils.NestedException;
+import lt.lb.uncheckedutils.PassableException;
+import lt.lb.uncheckedutils.PassableExceptionChecked;
+import lt.lb.uncheckedutils.SafeOpt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Cost of creating, throwing, catching and unwrapping the stackless exception
+ * family compared to ordinary exceptions, and of returning an error as a
+ * {@link SafeOpt#error(java.lang.Throwable)} value instead of throwing it.
+ *
+ * Exceptions are created {@code stackDepth} frames deep, because stack trace
+ * filling cost grows with it. Unwrapping is measured over
+ * {@code nestingDepth} nested {@link NestedException} layers.
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionCostBenchmark {
+
+    @Param({"1", "32"})
+    public int stackDepth;
+
+    @Param({"1", "64"})
+    public int nestingDepth;
+
+    public String message = "Failure";
+
+    public Object source = new Object();
+
+    public NestedException nested;
+
+    public static final int DEFAULT = -1;
+
+    /**
+     * Allows arbitrary nesting, because {@link NestedException#of} never wraps
+     * {@link NestedException}.
+     */
+    public static class Nest extends NestedException {
+
+        public Nest(Throwable e) {
+            super(e);
+        }
+    }
+
+    @FunctionalInterface
+    public static interface ExSupplier {
+
+        public Throwable create();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Throwable t = new PassableException(message);
+        for (int i = 0; i < nestingDepth; i++) {
+            t = new Nest(t);
+        }
+        nested = (NestedException) t;
+    }
+
+    public static Throwable createAt(int depth, ExSupplier supplier) {
+        if (depth <= 1) {
+            return supplier.create();
+        }
+        return createAt(depth - 1, supplier);
+    }
+
+    public static Throwable throwAt(int depth, ExSupplier supplier) throws Throwable {
+        if (depth <= 1) {
+            throw supplier.create();
+        }
+        return throwAt(depth - 1, supplier);
+    }
+
+    public static Throwable throwCatch(int depth, ExSupplier supplier) {
+        try {
+            return throwAt(depth, supplier);
+        } catch (Throwable th) {
+            return th;
+        }
+    }
+
+    // creation
+    @Benchmark
+    public Throwable createRuntime() {
+        return createAt(stackDepth, () -> new RuntimeException(message));
+    }
+
+    @Benchmark
+    public Throwable createChecked() {
+        return createAt(stackDepth, () -> new Exception(message));
+    }
+
+    @Benchmark
+    public Throwable createPassable() {
+        return createAt(stackDepth, () -> new PassableException(message));
+    }
+
+    @Benchmark
+    public Throwable createPassableChecked() {
+        return createAt(stackDepth, () -> new PassableExceptionChecked(message));
+    }
+
+    @Benchmark
+    public Throwable createCancel() {
+        return createAt(stackDepth, () -> new CancelException(source, message));
+    }
+
+    @Benchmark
+    public Throwable createNestedOfRuntime() {
+        return createAt(stackDepth, () -> NestedException.of(new RuntimeException(message)));
+    }
+
+    @Benchmark
+    public Throwable createNestedOfPassable() {
+        return createAt(stackDepth, () -> NestedException.of(new PassableException(message)));
+    }
+
+    // throwing and catching
+    @Benchmark
+    public Throwable throwCatchRuntime() {
+        return throwCatch(stackDepth, () -> new RuntimeException(message));
+    }
+
+    @Benchmark
+    public Throwable throwCatchChecked() {
+        return throwCatch(stackDepth, () -> new Exception(message));
+    }
+
+    @Benchmark
+    public Throwable throwCatchPassable() {
+        return throwCatch(stackDepth, () -> new PassableException(message));
+    }
+
+    @Benchmark
+    public Throwable throwCatchPassableChecked() {
+        return throwCatch(stackDepth, () -> new PassableExceptionChecked(message));
+    }
+
+    @Benchmark
+    public Throwable throwCatchCancel() {
+        return throwCatch(stackDepth, () -> new CancelException(source, message));
+    }
+
+    @Benchmark
+    public Throwable throwCatchNestedOfRuntime() {
+        return throwCatch(stackDepth, () -> NestedException.of(new RuntimeException(message)));
+    }
+
+    // unwrapping
+    @Benchmark
+    public Throwable nestedOfNested() {
+        return NestedException.of(nested);
+    }
+
+    @Benchmark
+    public Throwable nestedUnwrap() {
+        return NestedException.unwrap(nested);
+    }
+
+    @Benchmark
+    public Throwable nestedUnwrapReal() {
+        return nested.unwrapReal();
+    }
+
+    // error as a value versus thrown error
+    public static SafeOpt<Integer> validateSafe(int depth, String value) {
+        if (depth <= 1) {
+            if (value.isEmpty()) {
+                return SafeOpt.error(new PassableException("Empty"));
+            }
+            return SafeOpt.of(value.length());
+        }
+        return validateSafe(depth - 1, value);
+    }
+
+    public static int validateThrowing(int depth, String value) {
+        if (depth <= 1) {
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Empty");
+            }
+            return value.length();
+        }
+        return validateThrowing(depth - 1, value);
+    }
+
+    public static int validateThrowingPassable(int depth, String value) {
+        if (depth <= 1) {
+            if (value.isEmpty()) {
+                throw new PassableException(IllegalArgumentException.class, "Empty");
+            }
+            return value.length();
+        }
+        return validateThrowingPassable(depth - 1, value);
+    }
+
+    @Benchmark
+    public int errorReturnedAsValue() {
+        return validateSafe(stackDepth, "").orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int errorThrown() {
+        try {
+            return validateThrowing(stackDepth, "");
+        } catch (IllegalArgumentException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int errorThrownPassable() {
+        try {
+            return validateThrowingPassable(stackDepth, "");
+        } catch (PassableException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int errorThrownCapturedByOfGet() {
+        return SafeOpt.ofGet(() -> validateThrowing(stackDepth, "")).orElse(DEFAULT);
+    }
+
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import lt.lb.uncheckedutils.Checked;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.concurrent.SafeOptAsync;
+import lt.lb.uncheckedutils.concurrent.Submitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * Fine-grained async mapping of a list. Compares a {@code SafeOptAsync} per
+ * element, followed by {@link SafeOpt#sequence}, with chunked
+ * {@link SafeOptAsync#mapAllAsync}.
+ *
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SafeOptAsyncBulkBenchmark -prof gc"}
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeOptAsyncBulkBenchmark {
+
+    /**
+     * CPU work per element, in {@link Blackhole#consumeCPU(long)} tokens.
+     */
+    @Param({"16"})
+    public long work;
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"DEFAULT_POOL", "LIMITED"})
+    public String submitterType;
+
+    public Submitter submitter;
+    public ExecutorService service;
+    public List<Integer> items;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("LIMITED".equals(submitterType)) {
+            service = Checked.createDefaultExecutorService();
+            submitter = Submitter.ofLimitedParallelism(service, Checked.REASONABLE_PARALLELISM, 1);
+        } else {
+            submitter = Submitter.DEFAULT_POOL;
+        }
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Integer> perElement() {
+        List<SafeOpt<Integer>> mapped = new ArrayList<>(size);
+        for (Integer item : items) {
+            mapped.add(SafeOpt.ofAsync(submitter, item).map(m -> {
+                Blackhole.consumeCPU(work);
+                return m + 1;
+            }));
+        }
+        return SafeOpt.sequence(mapped).get();
+    }
+
+    @Benchmark
+    public List<Integer> mapAllAsync() {
+        return SafeOptAsync.mapAllAsync(submitter, items, m -> {
+            Blackhole.consumeCPU(work);
+            return m + 1;
+        }).get();
+    }
+
+}
@@ -0,0 +1,131 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lt.lb.uncheckedutils.Checked;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.concurrent.Submitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *
+ * {@link lt.lb.uncheckedutils.concurrent.SafeOptAsync} chains driven through
+ * every {@link Submitter} strategy. Shape of the work is modeled after
+ * {@code SafeOptTest.nestedPeek}: {@code fanOut} independent chains, each
+ * {@code chainLength} stages long, nested {@code depth} times via
+ * {@code flatMap}.
+ *
+ * Throughput mode reports operations per second, SampleTime mode reports the
+ * latency distribution (p50, p99 etc.).
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SafeOptAsyncSubmitterBenchmark {
+
+    /**
+     * CPU work inside every stage, in {@link Blackhole#consumeCPU(long)}
+     * tokens.
+     */
+    public static final long STAGE_WORK = 64;
+
+    @Param({"IN_PLACE", "DEFAULT_POOL", "NEW_THREAD", "NEW_THREAD_LIMITED_NESTING", "LIMITED", "UNLIMITED_NESTING"})
+    public String submitterType;
+
+    @Param({"1", "8"})
+    public int chainLength;
+
+    @Param({"1", "4"})
+    public int fanOut;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    public Submitter submitter;
+    public ExecutorService service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (submitterType) {
+            case "IN_PLACE":
+                submitter = Submitter.IN_PLACE;
+                break;
+            case "DEFAULT_POOL":
+                submitter = Submitter.DEFAULT_POOL;
+                break;
+            case "NEW_THREAD":
+                submitter = Submitter.NEW_THREAD;
+                break;
+            case "NEW_THREAD_LIMITED_NESTING":
+                submitter = Submitter.NEW_THREAD_LIMITED_NESTING;
+                break;
+            case "LIMITED":
+                service = Checked.createDefaultExecutorService();
+                submitter = Submitter.ofLimitedParallelism(service, Checked.REASONABLE_PARALLELISM, Submitter.NESTING_LIMIT);
+                break;
+            case "UNLIMITED_NESTING":
+                // nested chains block their thread, so a bounded pool would starve without virtual threads
+                service = Checked.VIRTUAL_EXECUTORS_METHOD.isPresent() ? Checked.createDefaultExecutorService() : Executors.newCachedThreadPool();
+                submitter = Submitter.ofUnlimitedParallelism(service, Submitter.NESTING_LIMIT);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown submitter " + submitterType);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    public static SafeOpt<Integer> nested(Submitter submitter, int seed, int current, int depth, int chainLength) {
+        SafeOpt<Integer> chain = SafeOpt.ofAsync(submitter, seed);
+        for (int i = 0; i < chainLength; i++) {
+            chain = chain.map(m -> {
+                Blackhole.consumeCPU(STAGE_WORK);
+                return m + 1;
+            });
+        }
+        if (current + 1 < depth) {
+            chain = chain.flatMap(m -> nested(submitter, m, current + 1, depth, chainLength));
+        }
+        return chain;
+    }
+
+    @Benchmark
+    public int chains() {
+        List<SafeOpt<Integer>> roots = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            roots.add(nested(submitter, i, 0, depth, chainLength));
+        }
+        int sum = 0;
+        for (SafeOpt<Integer> root : roots) {
+            sum += root.throwAnyGet();
+        }
+        return sum;
+    }
+
+}
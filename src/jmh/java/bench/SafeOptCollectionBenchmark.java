@@ -0,0 +1,160 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.SafeOptCollectors;
+import lt.lb.uncheckedutils.SafeResults;
+import lt.lb.uncheckedutils.SafeSeq;
+import lt.lb.uncheckedutils.SafeStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Cost of converting a collection of inputs with {@link SafeOpt}, where every
+ * input parses. Compares {@link SafeOpt#traverse} with a list of
+ * {@code SafeOpt} folded by hand, {@link SafeOptCollectors} partitioning
+ * with two passes over a retained list of {@code SafeOpt}, and
+ * {@link SafeStreams#mapSafe} with {@code SafeOpt.ofGet} followed by filtering.
+ * {@code flatMapStream} measures {@code flatMap(SafeOpt::stream)} over eager
+ * and lazy values. {@code safeSeq} compares {@link SafeSeq} with a
+ * {@code Stream<SafeOpt>} simulation of the same chain. {@code safeResults}
+ * compares {@link SafeResults} with a retained list of {@code SafeOpt}.
+ *
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SafeOptCollectionBenchmark -prof gc"}
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeOptCollectionBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    public List<String> rows;
+
+    public List<SafeOpt<Integer>> opts;
+
+    public List<SafeOpt<Integer>> lazyOpts;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(String.valueOf(i));
+        }
+        opts = new ArrayList<>(size);
+        lazyOpts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            opts.add(i % 2 == 0 ? SafeOpt.of(i) : SafeOpt.empty());
+            SafeOpt<Integer> lazy = SafeOpt.ofLazy(i).filter(f -> f % 2 == 0);
+            lazy.isPresent();
+            lazyOpts.add(lazy);
+        }
+    }
+
+    @Benchmark
+    public SafeOpt<List<Integer>> traverse() {
+        return SafeOpt.traverse(rows, Integer::parseInt);
+    }
+
+    @Benchmark
+    public SafeOpt<List<Integer>> foldByHand() {
+        List<SafeOpt<Integer>> mapped = new ArrayList<>();
+        for (String row : rows) {
+            mapped.add(SafeOpt.of(row).map(Integer::parseInt));
+        }
+        List<Integer> result = new ArrayList<>();
+        for (SafeOpt<Integer> opt : mapped) {
+            if (opt.hasError()) {
+                return SafeOpt.error(opt.rawException());
+            }
+            result.add(opt.get());
+        }
+        return SafeOpt.of(result);
+    }
+
+    @Benchmark
+    public SafeOptCollectors.Partition<Integer> partitioning() {
+        return rows.stream().collect(SafeOptCollectors.partitioning(Integer::parseInt));
+    }
+
+    @Benchmark
+    public int partitionTwoPasses() {
+        List<SafeOpt<Integer>> mapped = rows.stream()
+                .map(row -> SafeOpt.of(row).map(Integer::parseInt))
+                .collect(Collectors.toList());
+        List<Integer> values = mapped.stream().filter(SafeOpt::isPresent).map(SafeOpt::get).collect(Collectors.toList());
+        List<Throwable> errors = mapped.stream().filter(SafeOpt::hasError).map(SafeOpt::rawException).collect(Collectors.toList());
+        return values.size() + errors.size();
+    }
+
+    @Benchmark
+    public long mapSafe() {
+        return SafeStreams.mapSafe(rows.stream(), Integer::parseInt, error -> {
+        }).mapToLong(m -> m).sum();
+    }
+
+    @Benchmark
+    public long ofGetFilter() {
+        return rows.stream()
+                .map(row -> SafeOpt.ofGet(() -> Integer.parseInt(row)))
+                .filter(SafeOpt::isPresent)
+                .mapToLong(SafeOpt::get).sum();
+    }
+
+    @Benchmark
+    public long flatMapStream() {
+        return opts.stream().flatMap(SafeOpt::stream).mapToLong(m -> m).sum();
+    }
+
+    @Benchmark
+    public long flatMapStreamLazy() {
+        return lazyOpts.stream().flatMap(SafeOpt::stream).mapToLong(m -> m).sum();
+    }
+
+    @Benchmark
+    public SafeOptCollectors.Partition<Integer> safeSeq() {
+        return SafeSeq.of(rows).map(Integer::parseInt).filter(f -> f % 2 == 0).map(m -> m + 1).collectAll();
+    }
+
+    @Benchmark
+    public SafeOptCollectors.Partition<Integer> safeSeqStreamOfSafeOpt() {
+        return rows.stream()
+                .map(row -> SafeOpt.of(row).map(Integer::parseInt).filter(f -> f % 2 == 0).map(m -> m + 1))
+                .filter(SafeOpt::hasValueOrError)
+                .collect(SafeOptCollectors.partitioning());
+    }
+
+    @Benchmark
+    public SafeResults<Integer> safeResults() {
+        return SafeResults.mapAll(rows, Integer::parseInt);
+    }
+
+    @Benchmark
+    public List<SafeOpt<Integer>> safeResultsListOfSafeOpt() {
+        List<SafeOpt<Integer>> mapped = new ArrayList<>(rows.size());
+        for (String row : rows) {
+            mapped.add(SafeOpt.ofGet(() -> Integer.parseInt(row)));
+        }
+        return mapped;
+    }
+
+}
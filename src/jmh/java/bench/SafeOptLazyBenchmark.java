@@ -0,0 +1,83 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import lt.lb.uncheckedutils.SafeOpt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Cost of building and collapsing lazy {@link SafeOpt} chains of cheap
+ * stages. Compares memoizing every stage ({@link SafeOpt#ofLazy}) with fused
+ * stages ({@link SafeOpt#ofLazyFused}), thread-confined stages
+ * ({@link SafeOpt#ofLazyConfined}) and an eager chain. {@code memoized}
+ * measures reading an already collapsed lazy value.
+ *
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SafeOptLazyBenchmark -prof gc"}
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeOptLazyBenchmark {
+
+    @Param({"10", "30"})
+    public int stages;
+
+    public Integer input = 1;
+
+    private SafeOpt<Integer> memoized;
+
+    @Setup
+    public void setup() {
+        memoized = SafeOpt.ofLazy(input).map(m -> m + 1);
+        memoized.orElse(-1);
+    }
+
+    private int chain(SafeOpt<Integer> start) {
+        SafeOpt<Integer> opt = start;
+        for (int i = 0; i < stages; i++) {
+            opt = (i & 1) == 0 ? opt.map(m -> m + 1) : opt.filter(f -> f > 0);
+        }
+        return opt.orElse(-1);
+    }
+
+    @Benchmark
+    public int eager() {
+        return chain(SafeOpt.of(input));
+    }
+
+    @Benchmark
+    public int lazy() {
+        return chain(SafeOpt.ofLazy(input));
+    }
+
+    @Benchmark
+    public int lazyFused() {
+        return chain(SafeOpt.ofLazyFused(input));
+    }
+
+    @Benchmark
+    public int lazyConfined() {
+        return chain(SafeOpt.ofLazyConfined(input));
+    }
+
+    @Benchmark
+    public int memoized() {
+        return memoized.orElse(-1);
+    }
+
+}
@@ -0,0 +1,244 @@
+package bench;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.SafeOptMutable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * Cost of eager {@link SafeOpt} chains compared to {@link Optional} and plain
+ * try/catch. Every chain parses the input, so {@code "NaN"} measures the error
+ * path.
+ *
+ * Run with GC profiler to see allocation per call:
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="SafeOptValBenchmark -prof gc"}
+ *
+ * @author laim0nas100
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeOptValBenchmark {
+
+    @Param({"12345", "NaN"})
+    public String input;
+
+    public Integer other = 10;
+
+    public static final int DEFAULT = -1;
+
+    private final SafeOptMutable<Object> carrier = new SafeOptMutable<>();
+
+    @Benchmark
+    public int mapSafeOpt() {
+        return SafeOpt.of(input)
+                .map(Integer::parseInt)
+                .map(m -> m * 2)
+                .map(m -> m + 1)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int mapOptional() {
+        try {
+            return Optional.of(input)
+                    .map(Integer::parseInt)
+                    .map(m -> m * 2)
+                    .map(m -> m + 1)
+                    .orElse(DEFAULT);
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int mapTryCatch() {
+        try {
+            int parsed = Integer.parseInt(input);
+            return parsed * 2 + 1;
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int mapSafeOptInt() {
+        return SafeOpt.of(input)
+                .mapToInt(Integer::parseInt)
+                .map(m -> m * 2)
+                .map(m -> m + 1)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int mapSafeOptMutable() {
+        return carrier.set(input)
+                .map(Integer::parseInt)
+                .map(m -> m * 2)
+                .map(m -> m + 1)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int filterSafeOpt() {
+        return SafeOpt.of(input)
+                .map(Integer::parseInt)
+                .filter(f -> f > 0)
+                .filter(f -> f % 2 == 1)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int filterOptional() {
+        try {
+            return Optional.of(input)
+                    .map(Integer::parseInt)
+                    .filter(f -> f > 0)
+                    .filter(f -> f % 2 == 1)
+                    .orElse(DEFAULT);
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int flatMapSafeOpt() {
+        return SafeOpt.of(input)
+                .flatMap(m -> SafeOpt.ofGet(() -> Integer.parseInt(m)))
+                .flatMap(m -> SafeOpt.of(m * 2))
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int flatMapOptional() {
+        return Optional.of(input)
+                .flatMap(m -> {
+                    try {
+                        return Optional.of(Integer.parseInt(m));
+                    } catch (NumberFormatException ex) {
+                        return Optional.empty();
+                    }
+                })
+                .flatMap(m -> Optional.of(m * 2))
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int flatMapOptSafeOpt() {
+        return SafeOpt.of(input)
+                .map(Integer::parseInt)
+                .flatMapOpt(m -> Optional.of(m * 2))
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public Number selectSafeOpt() {
+        return SafeOpt.of(input)
+                .map(m -> (Number) Integer.parseInt(m))
+                .select(Integer.class)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public Number selectOptional() {
+        try {
+            return Optional.of(input)
+                    .map(m -> (Number) Integer.parseInt(m))
+                    .filter(Integer.class::isInstance)
+                    .map(Integer.class::cast)
+                    .orElse(DEFAULT);
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int mapCombineSafeOpt() {
+        return SafeOpt.of(input)
+                .map(Integer::parseInt)
+                .mapCombine(SafeOpt.of(other), (a, b) -> a + b)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public int mapCombineOptional() {
+        try {
+            Optional<Integer> with = Optional.of(other);
+            return Optional.of(input)
+                    .map(Integer::parseInt)
+                    .flatMap(a -> with.map(b -> a + b))
+                    .orElse(DEFAULT);
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int orElseGetSafeOpt() {
+        return SafeOpt.of(input)
+                .map(Integer::parseInt)
+                .orElseGet(() -> DEFAULT);
+    }
+
+    @Benchmark
+    public int throwIfErrorSafeOpt() {
+        try {
+            return SafeOpt.of(input)
+                    .map(Integer::parseInt)
+                    .throwIfError(NumberFormatException.class)
+                    .orElse(DEFAULT);
+        } catch (NumberFormatException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int throwIfErrorRuntimeSafeOpt() {
+        try {
+            return SafeOpt.of(input)
+                    .map(Integer::parseInt)
+                    .throwIfErrorRuntime()
+                    .orElse(DEFAULT);
+        } catch (RuntimeException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public int throwIfErrorAsNestedSafeOpt() {
+        try {
+            return SafeOpt.of(input)
+                    .map(Integer::parseInt)
+                    .throwIfErrorAsNested()
+                    .orElse(DEFAULT);
+        } catch (RuntimeException ex) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public Integer throwAnyOrNullSafeOpt() {
+        try {
+            return SafeOpt.of(input)
+                    .map(Integer::parseInt)
+                    .throwAnyOrNull();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+}
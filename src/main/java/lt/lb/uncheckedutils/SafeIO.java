@@ -0,0 +1,439 @@
+package lt.lb.uncheckedutils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import lt.lb.uncheckedutils.concurrent.SafeOptAsync;
+import lt.lb.uncheckedutils.concurrent.Submitter;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * File reading utilities with per-record exception capturing. Files are split
+ * in chunks, chunks always end at a record boundary, so they can be parsed
+ * independently. Chunks are read through {@link FileChannel} into reused
+ * windows, not memory mapped, so nothing stays mapped (or locked) until garbage
+ * collection. A failing record is stored as an error with its byte offset and
+ * reading continues.
+ *
+ * @author laim0nas100
+ */
+public final class SafeIO {
+
+    private SafeIO() {
+    }
+
+    /**
+     * Default size of a chunk in bytes, chunk is extended up to the end of the
+     * last record that starts within it.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+
+    /**
+     * Largest possible chunk.
+     */
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Initial size of a read window, it grows only to fit a longer record.
+     */
+    private static final int WINDOW_SIZE = 1 << 20;
+
+    /**
+     * Read size, when looking for record boundaries.
+     */
+    private static final int PROBE_SIZE = 8 << 10;
+
+    /**
+     * Record outcomes with their byte offsets in the file, in file order.
+     *
+     * @param <T>
+     */
+    public static class Records<T> {
+
+        protected final SafeResults<T> results;
+        protected long[] offsets;
+
+        public Records() {
+            this(16);
+        }
+
+        public Records(int initialCapacity) {
+            results = new SafeResults<>(initialCapacity);
+            offsets = new long[initialCapacity];
+        }
+
+        private void offset(long offset) {
+            int index = results.size() - 1;
+            if (index >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.max(index + 1, offsets.length + (offsets.length >> 1)));
+            }
+            offsets[index] = offset;
+        }
+
+        protected void addValue(long offset, T value) {
+            results.addValue(value);
+            offset(offset);
+        }
+
+        protected void addError(long offset, Throwable error) {
+            results.addError(error);
+            offset(offset);
+        }
+
+        protected void addAll(Records<? extends T> other) {
+            int size = results.size();
+            int otherSize = other.results.size();
+            results.addAll(other.results);
+            if (size + otherSize > offsets.length) {
+                offsets = Arrays.copyOf(offsets, size + otherSize);
+            }
+            System.arraycopy(other.offsets, 0, offsets, size, otherSize);
+        }
+
+        /**
+         *
+         * @return amount of records
+         */
+        public int size() {
+            return results.size();
+        }
+
+        /**
+         *
+         * @param index
+         * @return byte offset of record at given index
+         */
+        public long getOffset(int index) {
+            if (index < 0 || index >= results.size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + results.size());
+            }
+            return offsets[index];
+        }
+
+        /**
+         * Record outcome as a new {@code SafeOpt}.
+         *
+         * @param index
+         * @return
+         */
+        public SafeOpt<T> get(int index) {
+            return results.get(index);
+        }
+
+        /**
+         *
+         * @return underlying outcomes, indexed like records
+         */
+        public SafeResults<T> getResults() {
+            return results;
+        }
+
+        /**
+         * Visit every error with its byte offset, in file order.
+         *
+         * @param action
+         */
+        public void forEachError(ObjLongConsumer<? super Throwable> action) {
+            Objects.requireNonNull(action);
+            results.forEachError((error, index) -> action.accept(error, offsets[index]));
+        }
+    }
+
+    /**
+     * Parse every line of UTF-8 file.
+     *
+     * @see #readLines(Path, Charset, int, UncheckedFunction)
+     * @param <T>
+     * @param path
+     * @param parser
+     * @return
+     */
+    public static <T> SafeOpt<Records<T>> readLines(Path path, UncheckedFunction<? super String, ? extends T> parser) {
+        return readLines(path, StandardCharsets.UTF_8, DEFAULT_CHUNK_SIZE, parser);
+    }
+
+    /**
+     * Parse every line, like {@link java.io.BufferedReader#readLine()} does,
+     * lines end with {@code \n} or {@code \r\n}. Charset must encode
+     * {@code '\n'} and {@code '\r'} as single bytes (UTF-8, ASCII, ISO-8859-*
+     * and similar).
+     *
+     * @param <T>
+     * @param path
+     * @param charset
+     * @param chunkSize
+     * @param parser
+     * @return records, or error if file could not be read
+     */
+    public static <T> SafeOpt<Records<T>> readLines(Path path, Charset charset, int chunkSize, UncheckedFunction<? super String, ? extends T> parser) {
+        return read(null, path, (byte) '\n', chunkSize, lineParser(charset, parser));
+    }
+
+    /**
+     * Parse every line, chunks are parsed in parallel.
+     *
+     * @see #readLines(Path, Charset, int, UncheckedFunction)
+     * @param <T>
+     * @param submitter
+     * @param path
+     * @param charset
+     * @param chunkSize
+     * @param parser
+     * @return records, or error if file could not be read
+     */
+    public static <T> SafeOpt<Records<T>> readLines(Submitter submitter, Path path, Charset charset, int chunkSize, UncheckedFunction<? super String, ? extends T> parser) {
+        Objects.requireNonNull(submitter, "Null submitter");
+        return read(submitter, path, (byte) '\n', chunkSize, lineParser(charset, parser));
+    }
+
+    /**
+     * Parse every record, separated by given delimiter. Parser gets a
+     * read-only buffer of the read window, record being between position and
+     * limit (delimiter excluded), which is only valid during the call and must
+     * not be retained. Empty trailing record is skipped.
+     *
+     * @param <T>
+     * @param path
+     * @param delimiter
+     * @param chunkSize
+     * @param parser
+     * @return records, or error if file could not be read
+     */
+    public static <T> SafeOpt<Records<T>> readRecords(Path path, byte delimiter, int chunkSize, UncheckedFunction<? super ByteBuffer, ? extends T> parser) {
+        Objects.requireNonNull(parser, "Null parser");
+        return read(null, path, delimiter, chunkSize, () -> parser);
+    }
+
+    /**
+     * Parse every record, chunks are parsed in parallel. Parser must be
+     * thread-safe.
+     *
+     * @see #readRecords(Path, byte, int, UncheckedFunction)
+     * @param <T>
+     * @param submitter
+     * @param path
+     * @param delimiter
+     * @param chunkSize
+     * @param parser
+     * @return records, or error if file could not be read
+     */
+    public static <T> SafeOpt<Records<T>> readRecords(Submitter submitter, Path path, byte delimiter, int chunkSize, UncheckedFunction<? super ByteBuffer, ? extends T> parser) {
+        Objects.requireNonNull(submitter, "Null submitter");
+        Objects.requireNonNull(parser, "Null parser");
+        return read(submitter, path, delimiter, chunkSize, () -> parser);
+    }
+
+    /**
+     * Line decoding with a byte array reused within a chunk.
+     */
+    private static <T> Supplier<UncheckedFunction<? super ByteBuffer, ? extends T>> lineParser(Charset charset, UncheckedFunction<? super String, ? extends T> parser) {
+        Objects.requireNonNull(charset, "Null charset");
+        Objects.requireNonNull(parser, "Null parser");
+        return () -> new UncheckedFunction<ByteBuffer, T>() {
+            byte[] bytes = new byte[256];
+
+            @Override
+            public T applyUnchecked(ByteBuffer buffer) throws Throwable {
+                int length = buffer.remaining();
+                if (length > 0 && buffer.get(buffer.limit() - 1) == '\r') {
+                    length--;
+                }
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                buffer.get(bytes, 0, length);
+                return parser.applyUnchecked(new String(bytes, 0, length, charset));
+            }
+        };
+    }
+
+    private static <T> SafeOpt<Records<T>> read(Submitter submitter, Path path, byte delimiter, int chunkSize, Supplier<UncheckedFunction<? super ByteBuffer, ? extends T>> parsers) {
+        Objects.requireNonNull(path, "Null path");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, delimiter, chunkSize);
+            int chunks = bounds.length - 1;
+            // at most one window per concurrently parsed chunk
+            Queue<ByteBuffer> windows = new ConcurrentLinkedQueue<>();
+            if (submitter == null || chunks <= 1) {
+                Records<T> records = new Records<>();
+                for (int i = 0; i < chunks; i++) {
+                    parseChunk(channel, bounds[i], bounds[i + 1], delimiter, parsers.get(), records, windows);
+                }
+                return SafeOpt.of(records);
+            }
+            List<SafeOpt<Records<T>>> parts = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                SafeOptAsync<Long> start = new SafeOptAsync<>(submitter, SafeOpt.of(from));
+                parts.add(start.functor(f -> {
+                    Records<T> records = new Records<>();
+                    try {
+                        parseChunk(channel, from, to, delimiter, parsers.get(), records, windows);
+                    } catch (Throwable t) {
+                        return SafeOpt.error(t);
+                    }
+                    return SafeOpt.of(records);
+                }));
+            }
+            Records<T> records = new Records<>();
+            for (SafeOpt<Records<T>> part : parts) {// collapse every part before channel is closed
+                Records<T> chunk = part.rawValue();
+                if (chunk == null) {
+                    Throwable error = part.rawException();
+                    return SafeOpt.error(error == null ? new IOException("Chunk was not parsed") : error);
+                }
+                records.addAll(chunk);
+            }
+            return SafeOpt.of(records);
+        } catch (Throwable t) {
+            return SafeOpt.error(t);
+        }
+    }
+
+    /**
+     * Split file into chunks of about given size, every chunk ends right after
+     * a delimiter or at the end of file.
+     *
+     * @return chunk boundaries, starting with 0 and ending with file size
+     */
+    private static long[] chunkBounds(FileChannel channel, byte delimiter, int chunkSize) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[(int) Math.min(Integer.MAX_VALUE - 8, size / chunkSize + 2)];
+        int count = 1;
+        long start = 0;
+        ByteBuffer probe = null;
+        while (start < size) {
+            long end = start + chunkSize;
+            if (end >= size) {
+                end = size;
+            } else {
+                if (probe == null) {
+                    probe = ByteBuffer.allocate(PROBE_SIZE);
+                }
+                end = recordEnd(channel, probe, end - 1, size, delimiter);
+            }
+            if (end - start > MAX_CHUNK_SIZE) {
+                throw new IOException("Record at offset " + start + " exceeds " + MAX_CHUNK_SIZE + " bytes");
+            }
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, count * 2);
+            }
+            bounds[count++] = end;
+            start = end;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     *
+     * @return offset right after the first delimiter at or after given offset,
+     * or file size
+     */
+    private static long recordEnd(FileChannel channel, ByteBuffer probe, long from, long size, byte delimiter) throws IOException {
+        long position = from;
+        while (position < size) {
+            ((Buffer) probe).clear();// Java 8 compatible call
+            int read = channel.read(probe, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == delimiter) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static <T> void parseChunk(FileChannel channel, long from, long to, byte delimiter, UncheckedFunction<? super ByteBuffer, ? extends T> parser, Records<T> records, Queue<ByteBuffer> windows) throws IOException {
+        ByteBuffer window = windows.poll();
+        if (window == null) {
+            window = ByteBuffer.allocate((int) Math.max(1, Math.min(WINDOW_SIZE, to - from)));
+        }
+        try {
+            window = parseWindows(channel, from, to, delimiter, parser, records, window);
+        } finally {
+            windows.add(window);
+        }
+    }
+
+    /**
+     * Read the chunk window by window, a record, that does not fit in the rest
+     * of the window, is moved to its start, window grows only if the record is
+     * longer than the whole window.
+     *
+     * @return the window, possibly grown, to reuse
+     */
+    private static <T> ByteBuffer parseWindows(FileChannel channel, long from, long to, byte delimiter, UncheckedFunction<? super ByteBuffer, ? extends T> parser, Records<T> records, ByteBuffer window) throws IOException {
+        byte[] bytes = window.array();
+        ByteBuffer view = window.asReadOnlyBuffer();
+        long base = from;// file offset of window start
+        long next = from;// file offset to read from
+        int filled = 0;
+        int start = 0;
+        int end = 0;
+        for (;;) {
+            while (end < filled && bytes[end] != delimiter) {
+                end++;
+            }
+            if (end == filled && next < to) {// record continues in the next read
+                if (start > 0) {
+                    System.arraycopy(bytes, start, bytes, 0, filled - start);
+                    base += start;
+                    filled -= start;
+                    end -= start;
+                    start = 0;
+                } else if (filled == bytes.length) {
+                    window = ByteBuffer.wrap(bytes = Arrays.copyOf(bytes, (int) Math.min(MAX_CHUNK_SIZE, Math.max(filled + 1, (long) filled * 2))));
+                    view = window.asReadOnlyBuffer();
+                }
+                ((Buffer) window).limit((int) Math.min(bytes.length, filled + (to - next)));
+                ((Buffer) window).position(filled);
+                int read = channel.read(window, next);
+                if (read < 0) {
+                    throw new EOFException("File ended at offset " + next + ", expected " + to);
+                }
+                filled += read;
+                next += read;
+                continue;
+            }
+            if (start == filled) {// nothing after the last delimiter
+                return window;
+            }
+            ((Buffer) view).limit(end);
+            ((Buffer) view).position(start);
+            long offset = base + start;
+            try {
+                records.addValue(offset, parser.applyUnchecked(view));
+            } catch (Throwable t) {
+                records.addError(offset, t);
+            }
+            if (end == filled) {// last record without delimiter
+                return window;
+            }
+            start = end + 1;
+            end = start;
+        }
+    }
+
+}
@@ -1,9 +1,13 @@
 package lt.lb.uncheckedutils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -11,6 +15,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lt.lb.uncheckedutils.concurrent.SafeOptAsync;
 import lt.lb.uncheckedutils.concurrent.Submitter;
 import lt.lb.uncheckedutils.func.UncheckedBiFunction;
@@ -18,6 +23,9 @@ import lt.lb.uncheckedutils.func.UncheckedConsumer;
 import lt.lb.uncheckedutils.func.UncheckedFunction;
 import lt.lb.uncheckedutils.func.UncheckedRunnable;
 import lt.lb.uncheckedutils.func.UncheckedSupplier;
+import lt.lb.uncheckedutils.func.UncheckedToDoubleFunction;
+import lt.lb.uncheckedutils.func.UncheckedToIntFunction;
+import lt.lb.uncheckedutils.func.UncheckedToLongFunction;
 
 /**
  *
@@ -173,6 +181,65 @@ public interface SafeOpt<T> {
         return val == null ? SafeOpt.empty() : new SafeOptVal<>(val, null);
     }
 
+    /**
+     * Applies mapper to every element in iteration order, collecting results
+     * to a list without wrapping each of them in {@code SafeOpt}. Stops at the
+     * first exception and returns it as an error. If mapper returns
+     * {@code null}, stops and returns an empty {@code SafeOpt}.
+     *
+     * @param <T>
+     * @param <R>
+     * @param items
+     * @param mapper
+     * @return {@code SafeOpt} of all mapped elements, or the first error or
+     * empty result
+     */
+    public static <T, R> SafeOpt<List<R>> traverse(Collection<? extends T> items, UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(items, "Null collection");
+        Objects.requireNonNull(mapper, "Null map function");
+        ArrayList<R> result = new ArrayList<>(items.size());
+        try {
+            for (T item : items) {
+                R mapped = mapper.applyUnchecked(item);
+                if (mapped == null) {
+                    return SafeOpt.empty();
+                }
+                result.add(mapped);
+            }
+        } catch (Throwable t) {
+            return new SafeOptVal<>(null, NestedException.unwrap(t));
+        }
+        return new SafeOptVal<>(result, null);
+    }
+
+    /**
+     * Collects values of every {@code SafeOpt} in iteration order to a list.
+     * Stops at the first element without a value and returns its error, or an
+     * empty {@code SafeOpt} if there is no error ({@code null} elements are
+     * treated as empty). Collapses lazy and async elements.
+     *
+     * @param <T>
+     * @param items
+     * @return {@code SafeOpt} of all values, or the first error or empty
+     * result
+     */
+    public static <T> SafeOpt<List<T>> sequence(Collection<? extends SafeOpt<? extends T>> items) {
+        Objects.requireNonNull(items, "Null collection");
+        ArrayList<T> result = new ArrayList<>(items.size());
+        for (SafeOpt<? extends T> item : items) {
+            if (item == null) {
+                return SafeOpt.empty();
+            }
+            T value = item.rawValue();
+            if (value == null) {
+                Throwable error = item.rawException();
+                return error == null ? SafeOpt.empty() : new SafeOptVal<>(null, error);
+            }
+            result.add(value);
+        }
+        return new SafeOptVal<>(result, null);
+    }
+
     /**
      * Returns a lazy {@code SafeOpt} based on the given {@link Future}.
      * <p>
@@ -195,6 +262,35 @@ public interface SafeOpt<T> {
         return new SafeOptLazySnap<>(SafeOpt.of(future)).map(Future::get);
     }
 
+    /**
+     * Returns async {@code SafeOpt} completed by the given
+     * {@code CompletionStage}, through a callback, so unlike
+     * {@link #ofFuture(java.util.concurrent.Future)} no thread blocks waiting
+     * for it. Chained operations are evaluated in default
+     * {@linkplain Submitter#DEFAULT_POOL} after it completes.
+     *
+     * @param <T>
+     * @param stage
+     * @return
+     */
+    public static <T> SafeOpt<T> ofCompletionStage(CompletionStage<? extends T> stage) {
+        return SafeOptAsync.ofCompletionStage(Submitter.DEFAULT_POOL, stage);
+    }
+
+    /**
+     * Returns async {@code SafeOpt} completed by the given
+     * {@code CompletionStage}, chained operations are evaluated in given
+     * submitter.
+     *
+     * @param <T>
+     * @param submitter
+     * @param stage
+     * @return
+     */
+    public static <T> SafeOpt<T> ofCompletionStage(Submitter submitter, CompletionStage<? extends T> stage) {
+        return SafeOptAsync.ofCompletionStage(submitter, stage);
+    }
+
     /**
      * Returns a lazy {@code SafeOpt} wrapping the given value.
      * <p>
@@ -264,6 +360,68 @@ public interface SafeOpt<T> {
         return SafeOptLazySnap.STARTING.map(o -> suppl.get());
     }
 
+    /**
+     * Returns a lazy {@code SafeOpt} wrapping the given value, same as
+     * {@link SafeOpt#ofLazy(java.lang.Object)}, but consecutive operations are
+     * fused and evaluated in a single pass. Stages the pass goes through keep
+     * their result, so each stage is still evaluated at most once.
+     * <p>
+     * Suited for long chains of cheap operations, where collapsing every
+     * stage separately costs more than the work inside the stages.
+     *
+     * @param <T> the type of the value
+     * @param val the value to wrap (may be null)
+     * @return a lazy, fused {@code SafeOpt}
+     * @see SafeOptLazyFused
+     */
+    public static <T> SafeOpt<T> ofLazyFused(T val) {
+        return new SafeOptLazyFused<>(SafeOpt.ofNullable(val));
+    }
+
+    /**
+     * Returns a lazy {@code SafeOpt} of supplied value, same as
+     * {@link SafeOpt#ofLazy(java.util.function.Supplier)}, but consecutive
+     * operations are fused and evaluated in a single pass.
+     *
+     * @param <T> the type of the value
+     * @param suppl
+     * @return a lazy, fused {@code SafeOpt}
+     * @see SafeOptLazyFused
+     */
+    public static <T> SafeOpt<T> ofLazyFused(Supplier<T> suppl) {
+        Objects.requireNonNull(suppl);
+        return SafeOptLazyFused.STARTING.map(o -> suppl.get());
+    }
+
+    /**
+     * Returns a lazy {@code SafeOpt} wrapping the given value, same as
+     * {@link SafeOpt#ofLazy(java.lang.Object)}, but memoization is not thread
+     * safe. Chain must be created and collapsed in a single thread.
+     *
+     * @param <T> the type of the value
+     * @param val the value to wrap (may be null)
+     * @return a lazy, thread-confined {@code SafeOpt}
+     * @see SafeOptLazyConfined
+     */
+    public static <T> SafeOpt<T> ofLazyConfined(T val) {
+        return new SafeOptLazyConfined<>(SafeOpt.ofNullable(val));
+    }
+
+    /**
+     * Returns a lazy {@code SafeOpt} of supplied value, same as
+     * {@link SafeOpt#ofLazy(java.util.function.Supplier)}, but memoization is
+     * not thread safe. Chain must be created and collapsed in a single thread.
+     *
+     * @param <T> the type of the value
+     * @param suppl
+     * @return a lazy, thread-confined {@code SafeOpt}
+     * @see SafeOptLazyConfined
+     */
+    public static <T> SafeOpt<T> ofLazyConfined(Supplier<T> suppl) {
+        Objects.requireNonNull(suppl);
+        return SafeOptLazyConfined.STARTING.map(o -> suppl.get());
+    }
+
     /**
      * Returns {@code SafeOpt} based on the specified value. Every possible
      * operation is evaluated in given executor, similarly to
@@ -905,6 +1063,81 @@ public interface SafeOpt<T> {
         }
     }
 
+    /**
+     * If a value is present, apply the provided {@code int}-bearing mapping
+     * function to it, and return {@link SafeOptInt} describing the result, so
+     * further numeric operations don't box. Otherwise return an empty
+     * {@code SafeOptInt} keeping the error if one is present. If any exception
+     * occurs, just returns empty {@code SafeOptInt} with captured exception.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code SafeOptInt} describing the result
+     * @throws NullPointerException if the mapping function is null
+     */
+    public default SafeOptInt mapToInt(UncheckedToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!isPresent()) {
+            Throwable threw = rawException();
+            return threw == null ? SafeOptInt.empty() : SafeOptInt.error(threw);
+        } else {
+            try {
+                return SafeOptInt.of(mapper.applyAsIntUnchecked(rawValue()));
+            } catch (Throwable t) {
+                return SafeOptInt.error(t);
+            }
+        }
+    }
+
+    /**
+     * If a value is present, apply the provided {@code long}-bearing mapping
+     * function to it, and return {@link SafeOptLong} describing the result, so
+     * further numeric operations don't box. Otherwise return an empty
+     * {@code SafeOptLong} keeping the error if one is present. If any exception
+     * occurs, just returns empty {@code SafeOptLong} with captured exception.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code SafeOptLong} describing the result
+     * @throws NullPointerException if the mapping function is null
+     */
+    public default SafeOptLong mapToLong(UncheckedToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!isPresent()) {
+            Throwable threw = rawException();
+            return threw == null ? SafeOptLong.empty() : SafeOptLong.error(threw);
+        } else {
+            try {
+                return SafeOptLong.of(mapper.applyAsLongUnchecked(rawValue()));
+            } catch (Throwable t) {
+                return SafeOptLong.error(t);
+            }
+        }
+    }
+
+    /**
+     * If a value is present, apply the provided {@code double}-bearing mapping
+     * function to it, and return {@link SafeOptDouble} describing the result, so
+     * further numeric operations don't box. Otherwise return an empty
+     * {@code SafeOptDouble} keeping the error if one is present. If any exception
+     * occurs, just returns empty {@code SafeOptDouble} with captured exception.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code SafeOptDouble} describing the result
+     * @throws NullPointerException if the mapping function is null
+     */
+    public default SafeOptDouble mapToDouble(UncheckedToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!isPresent()) {
+            Throwable threw = rawException();
+            return threw == null ? SafeOptDouble.empty() : SafeOptDouble.error(threw);
+        } else {
+            try {
+                return SafeOptDouble.of(mapper.applyAsDoubleUnchecked(rawValue()));
+            } catch (Throwable t) {
+                return SafeOptDouble.error(t);
+            }
+        }
+    }
+
     /**
      * If exception has occurred, throws it wrapped in NestedException. If a
      * value is present, returns a sequential {@link Stream} containing only
@@ -923,11 +1156,8 @@ public interface SafeOpt<T> {
      * @return the optional value as a {@code Stream}
      */
     public default Stream<T> ignoringExceptionStream() {
-        if (!isPresent()) {
-            return Stream.empty();
-        } else {
-            return Stream.of(rawValue());
-        }
+        T val = rawValue();
+        return val == null ? Stream.empty() : StreamSupport.stream(new SingleSpliterator<>(val), false);
     }
 
     /**
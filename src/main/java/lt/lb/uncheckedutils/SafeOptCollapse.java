@@ -4,9 +4,6 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -18,6 +15,9 @@ import lt.lb.uncheckedutils.func.UncheckedBiFunction;
 import lt.lb.uncheckedutils.func.UncheckedConsumer;
 import lt.lb.uncheckedutils.func.UncheckedFunction;
 import lt.lb.uncheckedutils.func.UncheckedRunnable;
+import lt.lb.uncheckedutils.func.UncheckedToDoubleFunction;
+import lt.lb.uncheckedutils.func.UncheckedToIntFunction;
+import lt.lb.uncheckedutils.func.UncheckedToLongFunction;
 
 /**
  * Base lazy-ish behaviour methods for {@link SafeOpt} interface, for those
@@ -252,6 +252,42 @@ public interface SafeOptCollapse<T> extends SafeOpt<T> {
         return functor(f -> f.mapCombine(with, mapper));
     }
 
+    /**
+     *
+     * Collapsing.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public default SafeOptInt mapToInt(UncheckedToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return collapse().mapToInt(mapper);
+    }
+
+    /**
+     *
+     * Collapsing.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public default SafeOptLong mapToLong(UncheckedToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return collapse().mapToLong(mapper);
+    }
+
+    /**
+     *
+     * Collapsing.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public default SafeOptDouble mapToDouble(UncheckedToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return collapse().mapToDouble(mapper);
+    }
+
     /**
      * Cheap.
      *
@@ -555,13 +591,16 @@ public interface SafeOptCollapse<T> extends SafeOpt<T> {
      */
     public static <S, T> Iterator<T> asIterator(final SafeOpt<T> safeOpt, final boolean ignoreException) {
         Objects.requireNonNull(safeOpt);
+        if (safeOpt instanceof SafeOptVal && (ignoreException || !safeOpt.hasError())) {// allready known
+            return new SingleSpliterator<>(safeOpt.rawValue());
+        }
         return new Iterator<T>() {
 
-            final AtomicBoolean called = new AtomicBoolean(false);
+            boolean called;
 
             @Override
             public boolean hasNext() {
-                if (called.get()) {
+                if (called) {
                     return false;
                 }
                 if (ignoreException) {
@@ -572,7 +611,8 @@ public interface SafeOptCollapse<T> extends SafeOpt<T> {
 
             @Override
             public T next() {
-                if (called.compareAndSet(false, true)) {
+                if (!called) {
+                    called = true;
                     if (!ignoreException) {
                         safeOpt.throwIfErrorAsNested();
                     }
@@ -585,14 +625,23 @@ public interface SafeOptCollapse<T> extends SafeOpt<T> {
         };
     }
 
+    /**
+     * Collapsing, when stream is traversed.
+     *
+     * {@inheritDoc}
+     */
     @Override
     public default Stream<T> ignoringExceptionStream() {
-        return StreamSupport.stream(Spliterators.spliterator(asIterator(this, true), 1, Spliterator.SIZED), false);
+        return StreamSupport.stream(() -> new SingleSpliterator<>(collapse().rawValue()), SingleSpliterator.CHARACTERISTICS, false);
     }
 
+    /**
+     * Collapsing, when stream is traversed. Exception is thrown then.
+     *
+     * {@inheritDoc}
+     */
     @Override
     public default Stream<T> stream() throws NestedException {
-        return StreamSupport.stream(Spliterators.spliterator(asIterator(this, false), 1, Spliterator.SIZED), false);
-
+        return StreamSupport.stream(() -> new SingleSpliterator<>(collapse().throwIfErrorAsNested().rawValue()), SingleSpliterator.CHARACTERISTICS, false);
     }
 }
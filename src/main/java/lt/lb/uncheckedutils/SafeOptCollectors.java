@@ -0,0 +1,197 @@
+package lt.lb.uncheckedutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collector;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * {@link Collector} implementations for streams of safe results. Values and
+ * errors are collected directly, {@code SafeOpt} wrappers are not retained.
+ * Every collector is safe to use with parallel streams.
+ *
+ * @author laim0nas100
+ */
+public final class SafeOptCollectors {
+
+    private SafeOptCollectors() {
+    }
+
+    /**
+     * Result of partitioning, values and errors in encounter order.
+     *
+     * @param <T>
+     */
+    public static class Partition<T> {
+
+        protected final List<T> values = new ArrayList<>();
+        protected final List<Throwable> errors = new ArrayList<>();
+        protected final Map<Class<? extends Throwable>, Long> errorCounts = new HashMap<>();
+        protected long emptyCount;
+
+        protected void addValue(T value) {
+            values.add(value);
+        }
+
+        protected void addError(Throwable error) {
+            errors.add(error);
+            errorCounts.merge(error.getClass(), 1L, Long::sum);
+        }
+
+        protected void addEmpty() {
+            emptyCount++;
+        }
+
+        protected void add(T value, Throwable error) {
+            if (value != null) {
+                addValue(value);
+            } else if (error != null) {
+                addError(error);
+            } else {
+                addEmpty();
+            }
+        }
+
+        protected Partition<T> combine(Partition<T> other) {
+            values.addAll(other.values);
+            errors.addAll(other.errors);
+            other.errorCounts.forEach((k, v) -> errorCounts.merge(k, v, Long::sum));
+            emptyCount += other.emptyCount;
+            return this;
+        }
+
+        /**
+         *
+         * @return collected values
+         */
+        public List<T> getValues() {
+            return Collections.unmodifiableList(values);
+        }
+
+        /**
+         *
+         * @return collected errors
+         */
+        public List<Throwable> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         *
+         * @return error count by exact error type
+         */
+        public Map<Class<? extends Throwable>, Long> getErrorCounts() {
+            return Collections.unmodifiableMap(errorCounts);
+        }
+
+        /**
+         *
+         * @return count of results without value and without error
+         */
+        public long getEmptyCount() {
+            return emptyCount;
+        }
+
+        /**
+         *
+         * @return {@code true} if any error was collected
+         */
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" + "values=" + values.size() + ", errors=" + errorCounts + ", empty=" + emptyCount + '}';
+        }
+
+    }
+
+    /**
+     * Partition {@code SafeOpt} stream into values and errors. Collapses lazy
+     * and async elements, {@code null} elements are counted as empty.
+     *
+     * @param <T>
+     * @return
+     */
+    public static <T> Collector<SafeOpt<? extends T>, ?, Partition<T>> partitioning() {
+        return Collector.of(Partition::new, (Partition<T> part, SafeOpt<? extends T> opt) -> {
+            if (opt == null) {
+                part.addEmpty();
+            } else {
+                part.add(opt.rawValue(), opt.rawException());
+            }
+        }, Partition::combine, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Map every element and partition results into values and errors, without
+     * creating {@code SafeOpt} per element. Captures any exception, unwrapping
+     * {@link NestedException}. {@code null} results are counted as empty.
+     *
+     * @param <T>
+     * @param <R>
+     * @param mapper
+     * @return
+     */
+    public static <T, R> Collector<T, ?, Partition<R>> partitioning(UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        return Collector.of(Partition::new, (Partition<R> part, T item) -> {
+            R mapped;
+            try {
+                mapped = mapper.applyUnchecked(item);
+            } catch (Throwable t) {
+                part.addError(NestedException.unwrap(t));
+                return;
+            }
+            part.add(mapped, null);
+        }, Partition::combine, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Collect {@code SafeOpt} stream into {@link SafeResults}, keeping the
+     * position of every element. Collapses lazy and async elements,
+     * {@code null} elements are stored as empty.
+     *
+     * @param <T>
+     * @return
+     */
+    public static <T> Collector<SafeOpt<? extends T>, ?, SafeResults<T>> toResults() {
+        return Collector.of(SafeResults::new, (SafeResults<T> results, SafeOpt<? extends T> opt) -> {
+            if (opt == null) {
+                results.addEmpty();
+            } else {
+                results.add(opt);
+            }
+        }, SafeResults::addAll, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Map every element and collect results into {@link SafeResults}, without
+     * creating {@code SafeOpt} per element. Captures any exception, unwrapping
+     * {@link NestedException}. {@code null} results are stored as empty.
+     *
+     * @param <T>
+     * @param <R>
+     * @param mapper
+     * @return
+     */
+    public static <T, R> Collector<T, ?, SafeResults<R>> toResults(UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        return Collector.of(SafeResults::new, (SafeResults<R> results, T item) -> {
+            R mapped;
+            try {
+                mapped = mapper.applyUnchecked(item);
+            } catch (Throwable t) {
+                results.addError(t);
+                return;
+            }
+            results.addValue(mapped);
+        }, SafeResults::addAll, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+}
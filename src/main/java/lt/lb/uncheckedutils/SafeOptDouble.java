@@ -0,0 +1,440 @@
+package lt.lb.uncheckedutils;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import lt.lb.uncheckedutils.func.UncheckedDoubleConsumer;
+import lt.lb.uncheckedutils.func.UncheckedDoubleFunction;
+import lt.lb.uncheckedutils.func.UncheckedDoublePredicate;
+import lt.lb.uncheckedutils.func.UncheckedDoubleSupplier;
+import lt.lb.uncheckedutils.func.UncheckedDoubleToIntFunction;
+import lt.lb.uncheckedutils.func.UncheckedDoubleToLongFunction;
+import lt.lb.uncheckedutils.func.UncheckedDoubleUnaryOperator;
+
+/**
+ *
+ * {@code double} specialization of {@link SafeOpt}, {@code OptionalDouble}
+ * equivalent, but with exception capturing mapping. Values are never boxed,
+ * unless explicitly asked by {@link #boxed()} or {@link #mapToObj}.
+ *
+ * Always eager.
+ *
+ * @author laim0nas100
+ */
+public final class SafeOptDouble {
+
+    private static final SafeOptDouble EMPTY = new SafeOptDouble(false, 0, null);
+
+    private final boolean present;
+    private final double val;
+    private final Throwable threw;
+
+    private SafeOptDouble(boolean present, double val, Throwable threw) {
+        this.present = present;
+        this.val = val;
+        this.threw = threw;
+    }
+
+    /**
+     * Returns {@code SafeOptDouble} with the specified value present.
+     *
+     * @param val
+     * @return
+     */
+    public static SafeOptDouble of(double val) {
+        return new SafeOptDouble(true, val, null);
+    }
+
+    /**
+     * Returns empty {@code SafeOptDouble} instance.
+     *
+     * @return
+     */
+    public static SafeOptDouble empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns empty {@code SafeOptDouble} instance with given error. Error must be
+     * provided. This method unwraps {@link NestedException}.
+     *
+     * @param error
+     * @return
+     */
+    public static SafeOptDouble error(Throwable error) {
+        return new SafeOptDouble(false, 0, NestedException.unwrap(Objects.requireNonNull(error)));
+    }
+
+    /**
+     * Returns {@code SafeOptDouble} of supplied value, or empty
+     * {@code SafeOptDouble} with captured exception.
+     *
+     * @param sup
+     * @return
+     */
+    public static SafeOptDouble ofGet(UncheckedDoubleSupplier sup) {
+        Objects.requireNonNull(sup);
+        try {
+            return of(sup.getAsDoubleUnchecked());
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Returns {@code SafeOptDouble} of given {@link OptionalDouble}.
+     *
+     * @param opt
+     * @return
+     */
+    public static SafeOptDouble ofOptional(OptionalDouble opt) {
+        return opt.isPresent() ? of(opt.getAsDouble()) : EMPTY;
+    }
+
+    /**
+     * Return {@code true} if there is a value present, otherwise {@code false}.
+     *
+     * @return
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Return {@code true} if there is no value present, otherwise
+     * {@code false}.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return !present;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception present, otherwise
+     * {@code false}
+     */
+    public boolean hasError() {
+        return threw != null;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception or value present, otherwise
+     * {@code false}
+     */
+    public boolean hasValueOrError() {
+        return present || threw != null;
+    }
+
+    /**
+     * Resolve the exception stored in this {@code SafeOptDouble}.
+     *
+     * @return
+     */
+    public Throwable rawException() {
+        return threw;
+    }
+
+    /**
+     * {@link SafeOpt} instance with optional {@link Throwable} error inside.
+     *
+     * @return
+     */
+    public SafeOpt<Throwable> getError() {
+        return SafeOpt.ofNullable(threw);
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it.
+     * Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptDouble map(UncheckedDoubleUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return this;
+        }
+        try {
+            return of(mapper.applyAsDoubleUnchecked(val));
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, apply the provided {@code SafeOptDouble}-bearing
+     * mapping function to it. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptDouble flatMap(UncheckedDoubleFunction<SafeOptDouble> mapper) {
+        Objects.requireNonNull(mapper, "Mapping function was null");
+        if (!present) {
+            return this;
+        }
+        try {
+            SafeOptDouble opt = mapper.applyUnchecked(val);
+            return opt == null ? EMPTY : opt;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, and the value matches the given predicate, return
+     * this, otherwise return an empty {@code SafeOptDouble}. Captures any
+     * exception.
+     *
+     * @param predicate
+     * @return
+     */
+    public SafeOptDouble filter(UncheckedDoublePredicate predicate) {
+        Objects.requireNonNull(predicate, "Null predicate");
+        if (!present) {
+            return this;
+        }
+        try {
+            return predicate.testUnchecked(val) ? this : EMPTY;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value.
+     * Captures any exception.
+     *
+     * @param action
+     * @return
+     */
+    public SafeOptDouble peek(UncheckedDoubleConsumer action) {
+        Objects.requireNonNull(action, "action cannot be null");
+        if (!present) {
+            return this;
+        }
+        try {
+            action.acceptUnchecked(val);
+            return this;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Only if error is present, feed it to the consumer. Exceptions are not
+     * caught.
+     *
+     * @param errorCons
+     * @return
+     */
+    public SafeOptDouble peekError(Consumer<Throwable> errorCons) {
+        Objects.requireNonNull(errorCons);
+        if (threw != null) {
+            errorCons.accept(threw);
+        }
+        return this;
+    }
+
+    /**
+     * Bridge to object {@link SafeOpt}. Captures any exception.
+     *
+     * @param <U>
+     * @param mapper
+     * @return
+     */
+    public <U> SafeOpt<U> mapToObj(UncheckedDoubleFunction<? extends U> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOpt.empty() : SafeOpt.error(threw);
+        }
+        try {
+            return SafeOpt.ofNullable(mapper.applyUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOpt.error(NestedException.unwrap(t));
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptInt}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptInt mapToInt(UncheckedDoubleToIntFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptInt.empty() : SafeOptInt.error(threw);
+        }
+        try {
+            return SafeOptInt.of(mapper.applyAsIntUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptInt.error(t);
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptLong}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptLong mapToLong(UncheckedDoubleToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptLong.empty() : SafeOptLong.error(threw);
+        }
+        try {
+            return SafeOptLong.of(mapper.applyAsLongUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptLong.error(t);
+        }
+    }
+
+    /**
+     * Boxed {@link SafeOpt} equivalent.
+     *
+     * @return
+     */
+    public SafeOpt<Double> boxed() {
+        return mapToObj(Double::valueOf);
+    }
+
+    /**
+     * If a value is present, returns the value, otherwise throws
+     * {@code NoSuchElementException}. Also, throws any caught exception wrapped
+     * in {@link NestedException}.
+     *
+     * @return
+     */
+    public double getAsDouble() {
+        if (present) {
+            return val;
+        }
+        throwIfErrorAsNested();
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * Return the value if present, otherwise return {@code other}.
+     *
+     * @param other
+     * @return
+     */
+    public double orElse(double other) {
+        return present ? val : other;
+    }
+
+    /**
+     * Return the value if present, otherwise invoke {@code other} and return
+     * the result of that invocation.
+     *
+     * @param other
+     * @return
+     */
+    public double orElseGet(DoubleSupplier other) {
+        return present ? val : Objects.requireNonNull(other, "Null supplier").getAsDouble();
+    }
+
+    /**
+     * Return the contained value, if present, otherwise throw an exception to
+     * be created by the provided supplier.
+     *
+     * @param <X>
+     * @param exceptionSupplier
+     * @return
+     * @throws X
+     */
+    public <X extends Throwable> double orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        if (present) {
+            return val;
+        }
+        throw exceptionSupplier.get();
+    }
+
+    /**
+     * If an error has occurred, terminate by throwing such error wrapped in
+     * NestedException
+     *
+     * @return
+     */
+    public SafeOptDouble throwIfErrorAsNested() {
+        if (threw != null) {
+            throw NestedException.of(threw);
+        }
+        return this;
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value,
+     * otherwise do nothing.
+     *
+     * @param consumer
+     */
+    public void ifPresent(DoubleConsumer consumer) {
+        if (present) {
+            consumer.accept(val);
+        }
+    }
+
+    /**
+     * Returns an {@code OptionalDouble}, ignoring previously caught exception.
+     *
+     * @return
+     */
+    public OptionalDouble ignoringExceptionOptional() {
+        return present ? OptionalDouble.of(val) : OptionalDouble.empty();
+    }
+
+    /**
+     * If exception has occurred, throws it wrapped in NestedException.
+     * Otherwise returns {@code DoubleStream} of zero or one element.
+     *
+     * @return
+     */
+    public DoubleStream stream() throws NestedException {
+        throwIfErrorAsNested();
+        return present ? DoubleStream.of(val) : DoubleStream.empty();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 23 * hash + (present ? Double.hashCode(val) : 0);
+        hash = 23 * hash + Objects.hashCode(threw);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SafeOptDouble)) {
+            return false;
+        }
+        final SafeOptDouble other = (SafeOptDouble) obj;
+        return present == other.present && Double.compare(val, other.val) == 0 && Objects.equals(threw, other.threw);
+    }
+
+    @Override
+    public String toString() {
+        if (present) {
+            return "SafeOptDouble[" + val + "]";
+        }
+        if (threw != null) {
+            return String.format("SafeOptDouble.error[%s]", threw);
+        }
+        return "SafeOptDouble.empty";
+    }
+
+}
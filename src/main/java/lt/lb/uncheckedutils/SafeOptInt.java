@@ -0,0 +1,440 @@
+package lt.lb.uncheckedutils;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lt.lb.uncheckedutils.func.UncheckedIntConsumer;
+import lt.lb.uncheckedutils.func.UncheckedIntFunction;
+import lt.lb.uncheckedutils.func.UncheckedIntPredicate;
+import lt.lb.uncheckedutils.func.UncheckedIntSupplier;
+import lt.lb.uncheckedutils.func.UncheckedIntToDoubleFunction;
+import lt.lb.uncheckedutils.func.UncheckedIntToLongFunction;
+import lt.lb.uncheckedutils.func.UncheckedIntUnaryOperator;
+
+/**
+ *
+ * {@code int} specialization of {@link SafeOpt}, {@code OptionalInt}
+ * equivalent, but with exception capturing mapping. Values are never boxed,
+ * unless explicitly asked by {@link #boxed()} or {@link #mapToObj}.
+ *
+ * Always eager.
+ *
+ * @author laim0nas100
+ */
+public final class SafeOptInt {
+
+    private static final SafeOptInt EMPTY = new SafeOptInt(false, 0, null);
+
+    private final boolean present;
+    private final int val;
+    private final Throwable threw;
+
+    private SafeOptInt(boolean present, int val, Throwable threw) {
+        this.present = present;
+        this.val = val;
+        this.threw = threw;
+    }
+
+    /**
+     * Returns {@code SafeOptInt} with the specified value present.
+     *
+     * @param val
+     * @return
+     */
+    public static SafeOptInt of(int val) {
+        return new SafeOptInt(true, val, null);
+    }
+
+    /**
+     * Returns empty {@code SafeOptInt} instance.
+     *
+     * @return
+     */
+    public static SafeOptInt empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns empty {@code SafeOptInt} instance with given error. Error must be
+     * provided. This method unwraps {@link NestedException}.
+     *
+     * @param error
+     * @return
+     */
+    public static SafeOptInt error(Throwable error) {
+        return new SafeOptInt(false, 0, NestedException.unwrap(Objects.requireNonNull(error)));
+    }
+
+    /**
+     * Returns {@code SafeOptInt} of supplied value, or empty
+     * {@code SafeOptInt} with captured exception.
+     *
+     * @param sup
+     * @return
+     */
+    public static SafeOptInt ofGet(UncheckedIntSupplier sup) {
+        Objects.requireNonNull(sup);
+        try {
+            return of(sup.getAsIntUnchecked());
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Returns {@code SafeOptInt} of given {@link OptionalInt}.
+     *
+     * @param opt
+     * @return
+     */
+    public static SafeOptInt ofOptional(OptionalInt opt) {
+        return opt.isPresent() ? of(opt.getAsInt()) : EMPTY;
+    }
+
+    /**
+     * Return {@code true} if there is a value present, otherwise {@code false}.
+     *
+     * @return
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Return {@code true} if there is no value present, otherwise
+     * {@code false}.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return !present;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception present, otherwise
+     * {@code false}
+     */
+    public boolean hasError() {
+        return threw != null;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception or value present, otherwise
+     * {@code false}
+     */
+    public boolean hasValueOrError() {
+        return present || threw != null;
+    }
+
+    /**
+     * Resolve the exception stored in this {@code SafeOptInt}.
+     *
+     * @return
+     */
+    public Throwable rawException() {
+        return threw;
+    }
+
+    /**
+     * {@link SafeOpt} instance with optional {@link Throwable} error inside.
+     *
+     * @return
+     */
+    public SafeOpt<Throwable> getError() {
+        return SafeOpt.ofNullable(threw);
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it.
+     * Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptInt map(UncheckedIntUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return this;
+        }
+        try {
+            return of(mapper.applyAsIntUnchecked(val));
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, apply the provided {@code SafeOptInt}-bearing
+     * mapping function to it. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptInt flatMap(UncheckedIntFunction<SafeOptInt> mapper) {
+        Objects.requireNonNull(mapper, "Mapping function was null");
+        if (!present) {
+            return this;
+        }
+        try {
+            SafeOptInt opt = mapper.applyUnchecked(val);
+            return opt == null ? EMPTY : opt;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, and the value matches the given predicate, return
+     * this, otherwise return an empty {@code SafeOptInt}. Captures any
+     * exception.
+     *
+     * @param predicate
+     * @return
+     */
+    public SafeOptInt filter(UncheckedIntPredicate predicate) {
+        Objects.requireNonNull(predicate, "Null predicate");
+        if (!present) {
+            return this;
+        }
+        try {
+            return predicate.testUnchecked(val) ? this : EMPTY;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value.
+     * Captures any exception.
+     *
+     * @param action
+     * @return
+     */
+    public SafeOptInt peek(UncheckedIntConsumer action) {
+        Objects.requireNonNull(action, "action cannot be null");
+        if (!present) {
+            return this;
+        }
+        try {
+            action.acceptUnchecked(val);
+            return this;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Only if error is present, feed it to the consumer. Exceptions are not
+     * caught.
+     *
+     * @param errorCons
+     * @return
+     */
+    public SafeOptInt peekError(Consumer<Throwable> errorCons) {
+        Objects.requireNonNull(errorCons);
+        if (threw != null) {
+            errorCons.accept(threw);
+        }
+        return this;
+    }
+
+    /**
+     * Bridge to object {@link SafeOpt}. Captures any exception.
+     *
+     * @param <U>
+     * @param mapper
+     * @return
+     */
+    public <U> SafeOpt<U> mapToObj(UncheckedIntFunction<? extends U> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOpt.empty() : SafeOpt.error(threw);
+        }
+        try {
+            return SafeOpt.ofNullable(mapper.applyUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOpt.error(NestedException.unwrap(t));
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptLong}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptLong mapToLong(UncheckedIntToLongFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptLong.empty() : SafeOptLong.error(threw);
+        }
+        try {
+            return SafeOptLong.of(mapper.applyAsLongUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptLong.error(t);
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptDouble}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptDouble mapToDouble(UncheckedIntToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptDouble.empty() : SafeOptDouble.error(threw);
+        }
+        try {
+            return SafeOptDouble.of(mapper.applyAsDoubleUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptDouble.error(t);
+        }
+    }
+
+    /**
+     * Boxed {@link SafeOpt} equivalent.
+     *
+     * @return
+     */
+    public SafeOpt<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /**
+     * If a value is present, returns the value, otherwise throws
+     * {@code NoSuchElementException}. Also, throws any caught exception wrapped
+     * in {@link NestedException}.
+     *
+     * @return
+     */
+    public int getAsInt() {
+        if (present) {
+            return val;
+        }
+        throwIfErrorAsNested();
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * Return the value if present, otherwise return {@code other}.
+     *
+     * @param other
+     * @return
+     */
+    public int orElse(int other) {
+        return present ? val : other;
+    }
+
+    /**
+     * Return the value if present, otherwise invoke {@code other} and return
+     * the result of that invocation.
+     *
+     * @param other
+     * @return
+     */
+    public int orElseGet(IntSupplier other) {
+        return present ? val : Objects.requireNonNull(other, "Null supplier").getAsInt();
+    }
+
+    /**
+     * Return the contained value, if present, otherwise throw an exception to
+     * be created by the provided supplier.
+     *
+     * @param <X>
+     * @param exceptionSupplier
+     * @return
+     * @throws X
+     */
+    public <X extends Throwable> int orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        if (present) {
+            return val;
+        }
+        throw exceptionSupplier.get();
+    }
+
+    /**
+     * If an error has occurred, terminate by throwing such error wrapped in
+     * NestedException
+     *
+     * @return
+     */
+    public SafeOptInt throwIfErrorAsNested() {
+        if (threw != null) {
+            throw NestedException.of(threw);
+        }
+        return this;
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value,
+     * otherwise do nothing.
+     *
+     * @param consumer
+     */
+    public void ifPresent(IntConsumer consumer) {
+        if (present) {
+            consumer.accept(val);
+        }
+    }
+
+    /**
+     * Returns an {@code OptionalInt}, ignoring previously caught exception.
+     *
+     * @return
+     */
+    public OptionalInt ignoringExceptionOptional() {
+        return present ? OptionalInt.of(val) : OptionalInt.empty();
+    }
+
+    /**
+     * If exception has occurred, throws it wrapped in NestedException.
+     * Otherwise returns {@code IntStream} of zero or one element.
+     *
+     * @return
+     */
+    public IntStream stream() throws NestedException {
+        throwIfErrorAsNested();
+        return present ? IntStream.of(val) : IntStream.empty();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 23 * hash + (present ? Integer.hashCode(val) : 0);
+        hash = 23 * hash + Objects.hashCode(threw);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SafeOptInt)) {
+            return false;
+        }
+        final SafeOptInt other = (SafeOptInt) obj;
+        return present == other.present && val == other.val && Objects.equals(threw, other.threw);
+    }
+
+    @Override
+    public String toString() {
+        if (present) {
+            return "SafeOptInt[" + val + "]";
+        }
+        if (threw != null) {
+            return String.format("SafeOptInt.error[%s]", threw);
+        }
+        return "SafeOptInt.empty";
+    }
+
+}
@@ -0,0 +1,100 @@
+package lt.lb.uncheckedutils;
+
+import java.util.function.Function;
+
+/**
+ * Lazy snap-shotting {@link SafeOpt} implementation, confined to a single
+ * thread. Same as {@link SafeOptLazySnap}, but memoization uses plain fields
+ * without any synchronization, so the chain must be created and collapsed in
+ * the same thread (or safely published to another one).
+ *
+ * @author laim0nas100
+ */
+public class SafeOptLazyConfined<T> extends SafeOptLazySnap<T> {
+
+    /**
+     * Non empty starting point, to use with suppliers or mappers without
+     * creating a starting one every time.
+     */
+    public static final SafeOptLazyConfined STARTING = new SafeOptLazyConfined(SafeOpt.of(new Object()));
+
+    public static class CachedSupplierConfined<T, O> implements CachedSupplier<O> {
+
+        /**
+         * Released after memoization.
+         */
+        private SafeOptCollapse<T> prev;
+        /**
+         * Released after memoization.
+         */
+        private Function<SafeOpt<T>, SafeOpt<O>> func;
+        private SafeOpt<O> result;
+
+        public CachedSupplierConfined(SafeOptCollapse<T> prev, Function<SafeOpt<T>, SafeOpt<O>> func) {
+            this.prev = prev;
+            this.func = func;
+        }
+
+        @Override
+        public boolean isDone() {
+            return result != null;
+        }
+
+        @Override
+        public boolean isComputable() {
+            return true;
+        }
+
+        @Override
+        public SafeOptCollapse<?> dependency() {
+            return prev;
+        }
+
+        @Override
+        public SafeOpt<O> compute() {
+            if (result != null) {// allready memoized
+                return result;
+            }
+            collapseDependencies(prev);
+            return func.apply(prev.collapse());
+        }
+
+        @Override
+        public final SafeOpt<O> get() {
+            if (result != null) {
+                return result;
+            }
+            SafeOpt<O> compute;
+            try {
+                compute = compute();
+            } catch (Throwable tr) {
+                compute = SafeOpt.error(tr);
+            }
+            result = compute == null ? SafeOpt.empty() : compute;
+            // only the result is retained, ancestors can be collected
+            prev = null;
+            func = null;
+            return result;
+        }
+
+    }
+
+    protected SafeOptLazyConfined(CachedSupplier<T> supplier) {
+        super(supplier);
+    }
+
+    protected SafeOptLazyConfined(SafeOpt<T> initial) {
+        super(initial);
+    }
+
+    @Override
+    protected <O> SafeOptLazySnap<O> createStage(Function<SafeOpt<T>, SafeOpt<O>> func) {
+        return new SafeOptLazyConfined<>(new CachedSupplierConfined<>(this, func));
+    }
+
+    @Override
+    protected <A> SafeOptLazySnap<A> createSnap(SafeOpt<A> initial) {
+        return new SafeOptLazyConfined<>(initial);
+    }
+
+}
@@ -0,0 +1,124 @@
+package lt.lb.uncheckedutils;
+
+import java.util.ArrayList;
+import java.util.function.Function;
+
+/**
+ * Lazy {@link SafeOpt} implementation, that fuses consecutive operators.
+ * Unlike {@link SafeOptLazySnap}, stages are not collapsed one by one. On
+ * collapse, stages are collected up to the nearest computed stage (or one being
+ * computed by another thread) and applied in a single loop. Every stage the
+ * loop passes through keeps its value, so each stage still runs at most once,
+ * even if it is shared or collapsed after its descendant.
+ *
+ * @author laim0nas100
+ */
+public class SafeOptLazyFused<T> extends SafeOptLazySnap<T> {
+
+    /**
+     * Non empty starting point, to use with suppliers or mappers without
+     * creating a starting one every time.
+     */
+    public static final SafeOptLazyFused STARTING = new SafeOptLazyFused(SafeOpt.of(new Object()));
+
+    public static class CachedSupplierFused<T, O> extends CachedSupplierMemo<O> {
+
+        /**
+         * Released after memoization.
+         */
+        private SafeOptCollapse<T> prev;
+        /**
+         * Released after memoization.
+         */
+        private Function<SafeOpt<T>, SafeOpt<O>> func;
+
+        public CachedSupplierFused(SafeOptCollapse<T> prev, Function<SafeOpt<T>, SafeOpt<O>> func) {
+            this.prev = prev;
+            this.func = func;
+        }
+
+        @Override
+        public boolean isFused() {
+            return true;
+        }
+
+        @Override
+        public SafeOptCollapse<?> dependency() {
+            return prev;
+        }
+
+        @Override
+        public SafeOpt<O> compute() {
+            SafeOptCollapse source = prev;
+            Function f = func;
+            if (source == null || f == null) {// allready memoized
+                return get();
+            }
+            collapseDependencies(source);
+            ArrayList<Function> stages = new ArrayList<>();
+            ArrayList<CachedSupplierFused> passed = new ArrayList<>();// stages.get(i) belongs to passed.get(i - 1)
+            stages.add(f);
+            while (source instanceof SafeOptLazySnap) {
+                CachedSupplier sup = ((SafeOptLazySnap) source).supplier;
+                if (!(sup instanceof CachedSupplierFused)) {
+                    break;
+                }
+                CachedSupplierFused fused = (CachedSupplierFused) sup;
+                if (!fused.claim()) {// computed or being computed, just wait for it
+                    break;
+                }
+                stages.add(fused.func);
+                passed.add(fused);
+                source = fused.prev;
+            }
+            SafeOpt current;
+            try {
+                current = source.collapse();
+            } catch (Throwable tr) {
+                current = SafeOpt.error(tr);
+            }
+            int i = stages.size() - 1;
+            for (;;) {
+                try {
+                    for (; i > 0; i--) {
+                        current = passed.get(i - 1).publish((SafeOpt) stages.get(i).apply(current));
+                    }
+                    return (SafeOpt) stages.get(0).apply(current);
+                } catch (Throwable tr) {
+                    if (i == 0) {
+                        return SafeOpt.error(tr);
+                    }
+                    // claimed stages must be published, continue after the failed one
+                    current = passed.get(i - 1).publish(SafeOpt.error(tr));
+                    i--;
+                }
+            }
+        }
+
+        @Override
+        protected void release() {
+            prev = null;
+            func = null;
+        }
+
+    }
+
+    protected SafeOptLazyFused(CachedSupplier<T> supplier) {
+        super(supplier);
+    }
+
+    protected SafeOptLazyFused(SafeOpt<T> initial) {
+        super(initial);
+    }
+
+    @Override
+    protected <O> SafeOptLazySnap<O> createStage(Function<SafeOpt<T>, SafeOpt<O>> func) {
+        return new SafeOptLazyFused<>(new CachedSupplierFused<>(this, func));
+    }
+
+    @Override
+    protected <A> SafeOptLazySnap<A> createSnap(SafeOpt<A> initial) {
+        return new SafeOptLazyFused<>(initial);
+    }
+
+}
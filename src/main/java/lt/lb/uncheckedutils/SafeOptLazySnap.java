@@ -1,9 +1,9 @@
 package lt.lb.uncheckedutils;
 
+import java.util.ArrayList;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -31,6 +31,56 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
         }
 
         public SafeOpt<T> compute();
+
+        /**
+         * Lazy value, that {@link #compute()} collapses, if any.
+         *
+         * @return
+         */
+        public default SafeOptCollapse<?> dependency() {
+            return null;
+        }
+
+        /**
+         * Whether {@link #compute()} of a dependent stage also applies this
+         * stage, without memoizing it.
+         *
+         * @return
+         */
+        public default boolean isFused() {
+            return false;
+        }
+    }
+
+    /**
+     * Collapse not yet computed ancestors of given lazy value, deepest first.
+     * Then every compute finds its dependency already computed, so chain depth
+     * only costs heap, not stack.
+     *
+     * @param dependency
+     */
+    protected static void collapseDependencies(SafeOptCollapse<?> dependency) {
+        ArrayList<CachedSupplier> pending = null;
+        SafeOptCollapse<?> node = dependency;
+        while (node instanceof SafeOptLazySnap) {
+            CachedSupplier<?> sup = ((SafeOptLazySnap<?>) node).supplier;
+            if (sup.isDone()) {
+                break;
+            }
+            if (!sup.isFused()) {
+                if (pending == null) {
+                    pending = new ArrayList<>();
+                }
+                pending.add(sup);
+            }
+            node = sup.dependency();
+        }
+        if (pending == null) {
+            return;
+        }
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            pending.get(i).get();
+        }
     }
 
     public static class CachedSupplierValue<T> implements CachedSupplier<T> {
@@ -63,21 +113,42 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
 
     }
 
-    public static class CachedSupplierCompute<T, O> implements CachedSupplier<O> {
+    /**
+     * Memo cell. Computed value costs a single volatile read, threads only
+     * park when racing to compute.
+     *
+     * @param <O>
+     */
+    public static abstract class CachedSupplierMemo<O> implements CachedSupplier<O> {
+
+        private static final AtomicReferenceFieldUpdater<CachedSupplierMemo, Object> STATE
+                = AtomicReferenceFieldUpdater.newUpdater(CachedSupplierMemo.class, Object.class, "state");
 
-        private final CompletableFuture<SafeOpt<O>> cached = new CompletableFuture<>();
-        private final AtomicBoolean computeCalled = new AtomicBoolean(false);
-        private final SafeOptCollapse<T> prev;
-        private final Function<SafeOpt<T>, SafeOpt<O>> func;
+        private static final class Waiter {
 
-        public CachedSupplierCompute(SafeOptCollapse<T> prev, Function<SafeOpt<T>, SafeOpt<O>> func) {
-            this.prev = prev;
-            this.func = func;
+            final Thread thread;
+            final Waiter next;
+
+            Waiter(Thread thread, Waiter next) {
+                this.thread = thread;
+                this.next = next;
+            }
         }
 
+        /**
+         * Computing without waiters.
+         */
+        private static final Waiter COMPUTING = new Waiter(null, null);
+
+        /**
+         * {@code null} - not computed, {@link Waiter} - computing,
+         * {@link SafeOpt} - computed.
+         */
+        private volatile Object state;
+
         @Override
         public boolean isDone() {
-            return cached.isDone();
+            return state instanceof SafeOpt;
         }
 
         @Override
@@ -85,33 +156,117 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
             return true;
         }
 
-        @Override
-        public SafeOpt<O> compute() {
-            return func.apply(prev.collapse());
+        /**
+         * Release references, that are not needed after memoization.
+         */
+        protected void release() {
         }
 
         @Override
         public final SafeOpt<O> get() {
-            try {
-                if (cached.isDone()) {
-                    return cached.get();
-                }
-                if (!computeCalled.compareAndSet(false, true)) {
-                    return cached.get();
-                }//compute
+            Object s = state;
+            if (s instanceof SafeOpt) {
+                return (SafeOpt<O>) s;
+            }
+            if (s == null && claim()) {
+                SafeOpt<O> result;
                 try {
-                    SafeOpt<O> compute = compute();
-                    cached.complete(compute);
-                    return compute;
+                    result = compute();
                 } catch (Throwable tr) {
-                    SafeOpt<O> error = SafeOpt.error(tr);
-                    cached.complete(error);
-                    return error;
+                    result = SafeOpt.error(tr);
+                }
+                return publish(result);
+            }
+            return await();
+        }
+
+        /**
+         * Take the right to compute this value, that only one thread gets.
+         *
+         * @return {@code true} if the caller must {@link #publish} the value
+         */
+        protected boolean claim() {
+            return state == null && STATE.compareAndSet(this, null, COMPUTING);
+        }
+
+        /**
+         * Set the value, computed after a successful {@link #claim()}, wake up
+         * waiting threads.
+         *
+         * @param result
+         * @return memoized value
+         */
+        protected SafeOpt<O> publish(SafeOpt<O> result) {
+            if (result == null) {
+                result = SafeOpt.empty();
+            }
+            Waiter waiters = (Waiter) STATE.getAndSet(this, result);
+            // only the result is retained, ancestors can be collected
+            release();
+            for (Waiter w = waiters; w != null; w = w.next) {
+                if (w.thread != null) {
+                    LockSupport.unpark(w.thread);
                 }
+            }
+            return result;
+        }
+
+        private SafeOpt<O> await() {
+            boolean queued = false;
+            for (;;) {
+                Object s = state;
+                if (s instanceof SafeOpt) {
+                    return (SafeOpt<O>) s;
+                }
+                if (!queued) {
+                    queued = STATE.compareAndSet(this, s, new Waiter(Thread.currentThread(), (Waiter) s));
+                } else {
+                    LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        return SafeOpt.error(new InterruptedException());
+                    }
+                }
+            }
+        }
+
+    }
+
+    public static class CachedSupplierCompute<T, O> extends CachedSupplierMemo<O> {
+
+        /**
+         * Released after memoization.
+         */
+        private SafeOptCollapse<T> prev;
+        /**
+         * Released after memoization.
+         */
+        private Function<SafeOpt<T>, SafeOpt<O>> func;
+
+        public CachedSupplierCompute(SafeOptCollapse<T> prev, Function<SafeOpt<T>, SafeOpt<O>> func) {
+            this.prev = prev;
+            this.func = func;
+        }
 
-            } catch (InterruptedException | ExecutionException ex) {
-                return SafeOpt.error(ex);// only interruptions can happen
+        @Override
+        public SafeOpt<O> compute() {
+            SafeOptCollapse<T> p = prev;
+            Function<SafeOpt<T>, SafeOpt<O>> f = func;
+            if (p == null || f == null) {// allready memoized
+                return get();
             }
+            collapseDependencies(p);
+            return f.apply(p.collapse());
+        }
+
+        @Override
+        public SafeOptCollapse<?> dependency() {
+            return prev;
+        }
+
+        @Override
+        protected void release() {
+            prev = null;
+            func = null;
         }
 
     }
@@ -152,25 +307,47 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
         } else if (cheap && supplier.isDone()) { // every mapping was cheap before, so start new chain if not empty
             SafeOpt<T> collapse = collapse();
             if (collapse.isPresent()) {
-                return new SafeOptLazySnap<>(func.apply(collapse));
+                return createSnap(func.apply(collapse));
             } else {
                 return func.apply(collapse);//no longer lazy after getting empty
             }
 
         }
 
+        return createStage(func);
+    }
+
+    /**
+     * Create lazy stage, that applies given functor to this.
+     *
+     * @param <O>
+     * @param func
+     * @return
+     */
+    protected <O> SafeOptLazySnap<O> createStage(Function<SafeOpt<T>, SafeOpt<O>> func) {
         return new SafeOptLazySnap<>(new CachedSupplierCompute<>(this, func));
     }
 
+    /**
+     * Create lazy starting point of the same kind with given initial value.
+     *
+     * @param <A>
+     * @param initial
+     * @return
+     */
+    protected <A> SafeOptLazySnap<A> createSnap(SafeOpt<A> initial) {
+        return new SafeOptLazySnap<>(initial);
+    }
+
     @Override
     public <A> SafeOpt<A> produceNew(A rawValue, Throwable rawException) {
         if (rawValue == null && rawException == null) {
-            return new SafeOptLazySnap<>(SafeOpt.empty());
+            return createSnap(SafeOpt.empty());
         }
         if (rawValue != null && rawException != null) {
             throw new IllegalArgumentException("rawValue AND rawException should not be present");
         }
-        return new SafeOptLazySnap<>(SafeOpt.ofNullable(rawValue));
+        return createSnap(SafeOpt.ofNullable(rawValue));
     }
 
     @Override
@@ -178,7 +355,7 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
         if (rawValue() == null && rawException() == null) {// is allready empty
             return (SafeOpt<A>) this;
         }
-        return new SafeOptLazySnap<>(SafeOpt.empty());
+        return createSnap(SafeOpt.empty());
     }
 
     @Override
@@ -189,7 +366,7 @@ public class SafeOptLazySnap<T> extends SafeOptBase<T> implements SafeOptCollaps
         if (rawException() == rawException && rawValue() == null) {
             return (SafeOpt<A>) this;
         }
-        return new SafeOptLazySnap<>(SafeOpt.error(rawException));
+        return createSnap(SafeOpt.error(rawException));
     }
 
 }
@@ -0,0 +1,440 @@
+package lt.lb.uncheckedutils;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import lt.lb.uncheckedutils.func.UncheckedLongConsumer;
+import lt.lb.uncheckedutils.func.UncheckedLongFunction;
+import lt.lb.uncheckedutils.func.UncheckedLongPredicate;
+import lt.lb.uncheckedutils.func.UncheckedLongSupplier;
+import lt.lb.uncheckedutils.func.UncheckedLongToDoubleFunction;
+import lt.lb.uncheckedutils.func.UncheckedLongToIntFunction;
+import lt.lb.uncheckedutils.func.UncheckedLongUnaryOperator;
+
+/**
+ *
+ * {@code long} specialization of {@link SafeOpt}, {@code OptionalLong}
+ * equivalent, but with exception capturing mapping. Values are never boxed,
+ * unless explicitly asked by {@link #boxed()} or {@link #mapToObj}.
+ *
+ * Always eager.
+ *
+ * @author laim0nas100
+ */
+public final class SafeOptLong {
+
+    private static final SafeOptLong EMPTY = new SafeOptLong(false, 0, null);
+
+    private final boolean present;
+    private final long val;
+    private final Throwable threw;
+
+    private SafeOptLong(boolean present, long val, Throwable threw) {
+        this.present = present;
+        this.val = val;
+        this.threw = threw;
+    }
+
+    /**
+     * Returns {@code SafeOptLong} with the specified value present.
+     *
+     * @param val
+     * @return
+     */
+    public static SafeOptLong of(long val) {
+        return new SafeOptLong(true, val, null);
+    }
+
+    /**
+     * Returns empty {@code SafeOptLong} instance.
+     *
+     * @return
+     */
+    public static SafeOptLong empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns empty {@code SafeOptLong} instance with given error. Error must be
+     * provided. This method unwraps {@link NestedException}.
+     *
+     * @param error
+     * @return
+     */
+    public static SafeOptLong error(Throwable error) {
+        return new SafeOptLong(false, 0, NestedException.unwrap(Objects.requireNonNull(error)));
+    }
+
+    /**
+     * Returns {@code SafeOptLong} of supplied value, or empty
+     * {@code SafeOptLong} with captured exception.
+     *
+     * @param sup
+     * @return
+     */
+    public static SafeOptLong ofGet(UncheckedLongSupplier sup) {
+        Objects.requireNonNull(sup);
+        try {
+            return of(sup.getAsLongUnchecked());
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Returns {@code SafeOptLong} of given {@link OptionalLong}.
+     *
+     * @param opt
+     * @return
+     */
+    public static SafeOptLong ofOptional(OptionalLong opt) {
+        return opt.isPresent() ? of(opt.getAsLong()) : EMPTY;
+    }
+
+    /**
+     * Return {@code true} if there is a value present, otherwise {@code false}.
+     *
+     * @return
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Return {@code true} if there is no value present, otherwise
+     * {@code false}.
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return !present;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception present, otherwise
+     * {@code false}
+     */
+    public boolean hasError() {
+        return threw != null;
+    }
+
+    /**
+     *
+     * @return {@code true} if there is a exception or value present, otherwise
+     * {@code false}
+     */
+    public boolean hasValueOrError() {
+        return present || threw != null;
+    }
+
+    /**
+     * Resolve the exception stored in this {@code SafeOptLong}.
+     *
+     * @return
+     */
+    public Throwable rawException() {
+        return threw;
+    }
+
+    /**
+     * {@link SafeOpt} instance with optional {@link Throwable} error inside.
+     *
+     * @return
+     */
+    public SafeOpt<Throwable> getError() {
+        return SafeOpt.ofNullable(threw);
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it.
+     * Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptLong map(UncheckedLongUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return this;
+        }
+        try {
+            return of(mapper.applyAsLongUnchecked(val));
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, apply the provided {@code SafeOptLong}-bearing
+     * mapping function to it. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptLong flatMap(UncheckedLongFunction<SafeOptLong> mapper) {
+        Objects.requireNonNull(mapper, "Mapping function was null");
+        if (!present) {
+            return this;
+        }
+        try {
+            SafeOptLong opt = mapper.applyUnchecked(val);
+            return opt == null ? EMPTY : opt;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, and the value matches the given predicate, return
+     * this, otherwise return an empty {@code SafeOptLong}. Captures any
+     * exception.
+     *
+     * @param predicate
+     * @return
+     */
+    public SafeOptLong filter(UncheckedLongPredicate predicate) {
+        Objects.requireNonNull(predicate, "Null predicate");
+        if (!present) {
+            return this;
+        }
+        try {
+            return predicate.testUnchecked(val) ? this : EMPTY;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value.
+     * Captures any exception.
+     *
+     * @param action
+     * @return
+     */
+    public SafeOptLong peek(UncheckedLongConsumer action) {
+        Objects.requireNonNull(action, "action cannot be null");
+        if (!present) {
+            return this;
+        }
+        try {
+            action.acceptUnchecked(val);
+            return this;
+        } catch (Throwable t) {
+            return error(t);
+        }
+    }
+
+    /**
+     * Only if error is present, feed it to the consumer. Exceptions are not
+     * caught.
+     *
+     * @param errorCons
+     * @return
+     */
+    public SafeOptLong peekError(Consumer<Throwable> errorCons) {
+        Objects.requireNonNull(errorCons);
+        if (threw != null) {
+            errorCons.accept(threw);
+        }
+        return this;
+    }
+
+    /**
+     * Bridge to object {@link SafeOpt}. Captures any exception.
+     *
+     * @param <U>
+     * @param mapper
+     * @return
+     */
+    public <U> SafeOpt<U> mapToObj(UncheckedLongFunction<? extends U> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOpt.empty() : SafeOpt.error(threw);
+        }
+        try {
+            return SafeOpt.ofNullable(mapper.applyUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOpt.error(NestedException.unwrap(t));
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptInt}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptInt mapToInt(UncheckedLongToIntFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptInt.empty() : SafeOptInt.error(threw);
+        }
+        try {
+            return SafeOptInt.of(mapper.applyAsIntUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptInt.error(t);
+        }
+    }
+
+    /**
+     * Bridge to {@link SafeOptDouble}. Captures any exception.
+     *
+     * @param mapper
+     * @return
+     */
+    public SafeOptDouble mapToDouble(UncheckedLongToDoubleFunction mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        if (!present) {
+            return threw == null ? SafeOptDouble.empty() : SafeOptDouble.error(threw);
+        }
+        try {
+            return SafeOptDouble.of(mapper.applyAsDoubleUnchecked(val));
+        } catch (Throwable t) {
+            return SafeOptDouble.error(t);
+        }
+    }
+
+    /**
+     * Boxed {@link SafeOpt} equivalent.
+     *
+     * @return
+     */
+    public SafeOpt<Long> boxed() {
+        return mapToObj(Long::valueOf);
+    }
+
+    /**
+     * If a value is present, returns the value, otherwise throws
+     * {@code NoSuchElementException}. Also, throws any caught exception wrapped
+     * in {@link NestedException}.
+     *
+     * @return
+     */
+    public long getAsLong() {
+        if (present) {
+            return val;
+        }
+        throwIfErrorAsNested();
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * Return the value if present, otherwise return {@code other}.
+     *
+     * @param other
+     * @return
+     */
+    public long orElse(long other) {
+        return present ? val : other;
+    }
+
+    /**
+     * Return the value if present, otherwise invoke {@code other} and return
+     * the result of that invocation.
+     *
+     * @param other
+     * @return
+     */
+    public long orElseGet(LongSupplier other) {
+        return present ? val : Objects.requireNonNull(other, "Null supplier").getAsLong();
+    }
+
+    /**
+     * Return the contained value, if present, otherwise throw an exception to
+     * be created by the provided supplier.
+     *
+     * @param <X>
+     * @param exceptionSupplier
+     * @return
+     * @throws X
+     */
+    public <X extends Throwable> long orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        if (present) {
+            return val;
+        }
+        throw exceptionSupplier.get();
+    }
+
+    /**
+     * If an error has occurred, terminate by throwing such error wrapped in
+     * NestedException
+     *
+     * @return
+     */
+    public SafeOptLong throwIfErrorAsNested() {
+        if (threw != null) {
+            throw NestedException.of(threw);
+        }
+        return this;
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value,
+     * otherwise do nothing.
+     *
+     * @param consumer
+     */
+    public void ifPresent(LongConsumer consumer) {
+        if (present) {
+            consumer.accept(val);
+        }
+    }
+
+    /**
+     * Returns an {@code OptionalLong}, ignoring previously caught exception.
+     *
+     * @return
+     */
+    public OptionalLong ignoringExceptionOptional() {
+        return present ? OptionalLong.of(val) : OptionalLong.empty();
+    }
+
+    /**
+     * If exception has occurred, throws it wrapped in NestedException.
+     * Otherwise returns {@code LongStream} of zero or one element.
+     *
+     * @return
+     */
+    public LongStream stream() throws NestedException {
+        throwIfErrorAsNested();
+        return present ? LongStream.of(val) : LongStream.empty();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 23 * hash + (present ? Long.hashCode(val) : 0);
+        hash = 23 * hash + Objects.hashCode(threw);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SafeOptLong)) {
+            return false;
+        }
+        final SafeOptLong other = (SafeOptLong) obj;
+        return present == other.present && val == other.val && Objects.equals(threw, other.threw);
+    }
+
+    @Override
+    public String toString() {
+        if (present) {
+            return "SafeOptLong[" + val + "]";
+        }
+        if (threw != null) {
+            return String.format("SafeOptLong.error[%s]", threw);
+        }
+        return "SafeOptLong.empty";
+    }
+
+}
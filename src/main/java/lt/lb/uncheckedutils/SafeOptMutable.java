@@ -0,0 +1,125 @@
+package lt.lb.uncheckedutils;
+
+/**
+ * Mutable {@link SafeOpt} carrier. Every operation, that would produce a new
+ * {@code SafeOpt}, updates this instance in place and returns it, so a chain of
+ * {@code map}/{@code filter} stages allocates no {@code SafeOpt} instances.
+ *
+ * Meant to be reused inside a loop confined to a single thread. Previously
+ * returned references see every later change, so use {@link #freeze()} to keep
+ * the result.
+ * <pre>{@code
+ * SafeOptMutable<String> carrier = new SafeOptMutable<>();
+ * for (String row : rows) {
+ *     SafeOpt<Integer> parsed = carrier.set(row).map(Integer::parseInt).filter(f -> f > 0);
+ *     if (parsed.hasError()) {
+ *         errors.add(carrier.freeze());
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author laim0nas100
+ */
+public class SafeOptMutable<T> extends SafeOptBase<T> {
+
+    /**
+     * If non-null, the value; if null, indicates no value is present
+     */
+    protected Object val;
+
+    /**
+     * If non-null, the exception; if null, indicates no exception is present
+     */
+    protected Throwable threw;
+
+    public SafeOptMutable() {
+    }
+
+    public SafeOptMutable(T value) {
+        this.val = value;
+    }
+
+    /**
+     * Replace contents with given value (may be null), clearing any error.
+     *
+     * @param <A>
+     * @param value
+     * @return this object
+     */
+    public <A> SafeOptMutable<A> set(A value) {
+        val = value;
+        threw = null;
+        return (SafeOptMutable<A>) this;
+    }
+
+    /**
+     * Replace contents with given error (may be null), clearing any value. This
+     * method unwraps {@link NestedException}.
+     *
+     * @param <A>
+     * @param error
+     * @return this object
+     */
+    public <A> SafeOptMutable<A> setError(Throwable error) {
+        val = null;
+        threw = error == null ? null : NestedException.unwrap(error);
+        return (SafeOptMutable<A>) this;
+    }
+
+    /**
+     * Immutable snapshot of current contents. Type is not checked, because
+     * chained stages change the type of this carrier.
+     *
+     * @param <A>
+     * @return
+     */
+    public <A> SafeOpt<A> freeze() {
+        if (val == null && threw == null) {
+            return SafeOptVal.empty;
+        }
+        return new SafeOptVal<>((A) val, threw);
+    }
+
+    @Override
+    public <A> SafeOpt<A> produceNew(A rawValue, Throwable rawException) {
+        if (rawValue != null && rawException != null) {
+            throw new IllegalArgumentException("rawValue AND rawException cannot both be present");
+        }
+        val = rawValue;
+        threw = rawException;
+        return (SafeOpt<A>) this;
+    }
+
+    @Override
+    public <A> SafeOpt<A> produceEmpty() {
+        val = null;
+        threw = null;
+        return (SafeOpt<A>) this;
+    }
+
+    @Override
+    public <A> SafeOpt<A> produceError(Throwable rawException) {
+        return setError(rawException);
+    }
+
+    /**
+     * Does not modify this object.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public SafeOpt<Throwable> getError() {
+        return SafeOpt.ofNullable(threw);
+    }
+
+    @Override
+    public T rawValue() {
+        return (T) val;
+    }
+
+    @Override
+    public Throwable rawException() {
+        return threw;
+    }
+
+}
@@ -1,5 +1,8 @@
 package lt.lb.uncheckedutils;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  *
  *
@@ -59,6 +62,14 @@ public class SafeOptVal<T> extends SafeOptBase<T> {
         return new SafeOptVal<>(null, NestedException.unwrap(rawException));
     }
 
+    @Override
+    public Stream<T> stream() throws NestedException {
+        if (threw != null) {
+            throw NestedException.of(threw);
+        }
+        return val == null ? Stream.empty() : StreamSupport.stream(new SingleSpliterator<>(val), false);
+    }
+
     @Override
     public T rawValue() {
         return val;
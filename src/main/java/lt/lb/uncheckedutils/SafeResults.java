@@ -0,0 +1,413 @@
+package lt.lb.uncheckedutils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * Append-only, indexed container of safe outcomes, stored as struct of arrays
+ * instead of a {@code SafeOpt} per element. Values are stored in a dense
+ * array, errors only take a bit per element plus a compact array of errors,
+ * so a mostly successful result costs about as much as an array of values.
+ * Every element is a value, an error or empty.
+ *
+ * Not thread-safe.
+ *
+ * @author laim0nas100
+ * @param <T>
+ */
+public class SafeResults<T> implements Iterable<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Values, {@code null} for errors and empty elements.
+     */
+    protected Object[] values;
+    /**
+     * Bitset of indices, that hold an error.
+     */
+    protected long[] failed;
+    /**
+     * Amount of errors before every word of {@link #failed}, makes error
+     * lookup constant time.
+     */
+    protected int[] failedRank;
+    /**
+     * Errors in index order.
+     */
+    protected Throwable[] errors;
+    protected int size;
+    protected int errorCount;
+    protected int valueCount;
+
+    public SafeResults() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SafeResults(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity " + initialCapacity);
+        }
+        values = new Object[initialCapacity];
+        failed = new long[words(initialCapacity)];
+        failedRank = new int[failed.length];
+        errors = new Throwable[0];
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Map every item, capturing every error (unwrapping
+     * {@link NestedException}). {@code null} results are stored as empty.
+     *
+     * @param <T>
+     * @param <R>
+     * @param items
+     * @param mapper
+     * @return
+     */
+    public static <T, R> SafeResults<R> mapAll(Collection<? extends T> items, UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(items, "Null collection");
+        Objects.requireNonNull(mapper, "Null map function");
+        SafeResults<R> results = new SafeResults<>(items.size());
+        for (T item : items) {
+            R mapped;
+            try {
+                mapped = mapper.applyUnchecked(item);
+            } catch (Throwable t) {
+                results.addError(t);
+                continue;
+            }
+            results.addValue(mapped);
+        }
+        return results;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = values.length;
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        values = Arrays.copyOf(values, newCapacity);
+        int words = words(newCapacity);
+        if (words > failed.length) {
+            failed = Arrays.copyOf(failed, words);
+            failedRank = Arrays.copyOf(failedRank, words);
+        }
+    }
+
+    private int append() {
+        int index = size;
+        grow(index + 1);
+        if ((index & 63) == 0) {
+            failedRank[index >>> 6] = errorCount;
+        }
+        size++;
+        return index;
+    }
+
+    /**
+     * Append a value, {@code null} is stored as empty.
+     *
+     * @param value
+     * @return this object
+     */
+    public SafeResults<T> addValue(T value) {
+        int index = append();
+        if (value != null) {
+            values[index] = value;
+            valueCount++;
+        }
+        return this;
+    }
+
+    /**
+     * Append an error (unwrapping {@link NestedException}), {@code null} is
+     * stored as empty.
+     *
+     * @param error
+     * @return this object
+     */
+    public SafeResults<T> addError(Throwable error) {
+        int index = append();
+        if (error != null) {
+            failed[index >>> 6] |= 1L << index;
+            if (errorCount == errors.length) {
+                errors = Arrays.copyOf(errors, Math.max(4, errorCount + (errorCount >> 1)));
+            }
+            errors[errorCount++] = NestedException.unwrap(error);
+        }
+        return this;
+    }
+
+    /**
+     * Append an empty element.
+     *
+     * @return this object
+     */
+    public SafeResults<T> addEmpty() {
+        append();
+        return this;
+    }
+
+    /**
+     * Append contents of given {@code SafeOpt}, collapsing it if needed.
+     *
+     * @param opt
+     * @return this object
+     */
+    public SafeResults<T> add(SafeOpt<? extends T> opt) {
+        Objects.requireNonNull(opt);
+        T value = opt.rawValue();
+        if (value != null) {
+            return addValue(value);
+        }
+        return addError(opt.rawException());
+    }
+
+    /**
+     * Append every element of other results, in order.
+     *
+     * @param other
+     * @return this object
+     */
+    public SafeResults<T> addAll(SafeResults<? extends T> other) {
+        Objects.requireNonNull(other);
+        int otherSize = other.size;
+        grow(size + otherSize);
+        for (int i = 0; i < otherSize; i++) {
+            Object value = other.values[i];
+            if (value != null) {
+                addValue((T) value);
+            } else if (other.isError(i)) {
+                addError(other.errors[other.errorRank(i)]);
+            } else {
+                addEmpty();
+            }
+        }
+        return this;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private boolean isError(int index) {
+        return (failed[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Position of the error in {@link #errors}, element at given index must be
+     * an error.
+     *
+     * @param index
+     * @return
+     */
+    private int errorRank(int index) {
+        int word = index >>> 6;
+        return failedRank[word] + Long.bitCount(failed[word] & ((1L << index) - 1));
+    }
+
+    /**
+     *
+     * @return amount of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return amount of values
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     *
+     * @return amount of errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     *
+     * @return amount of empty elements
+     */
+    public int getEmptyCount() {
+        return size - valueCount - errorCount;
+    }
+
+    /**
+     *
+     * @return {@code true} if any element is an error
+     */
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    /**
+     *
+     * @param index
+     * @return {@code true} if element at given index is a value
+     */
+    public boolean isPresent(int index) {
+        checkIndex(index);
+        return values[index] != null;
+    }
+
+    /**
+     *
+     * @param index
+     * @return {@code true} if element at given index is an error
+     */
+    public boolean hasError(int index) {
+        checkIndex(index);
+        return isError(index);
+    }
+
+    /**
+     *
+     * @param index
+     * @return value at given index or {@code null}
+     */
+    public T rawValue(int index) {
+        checkIndex(index);
+        return (T) values[index];
+    }
+
+    /**
+     *
+     * @param index
+     * @return error at given index or {@code null}
+     */
+    public Throwable rawException(int index) {
+        checkIndex(index);
+        return isError(index) ? errors[errorRank(index)] : null;
+    }
+
+    /**
+     * Element as a new {@code SafeOpt}.
+     *
+     * @param index
+     * @return
+     */
+    public SafeOpt<T> get(int index) {
+        checkIndex(index);
+        Object value = values[index];
+        if (value != null) {
+            return new SafeOptVal<>((T) value, null);
+        }
+        if (isError(index)) {
+            return new SafeOptVal<>(null, errors[errorRank(index)]);
+        }
+        return SafeOpt.empty();
+    }
+
+    /**
+     * Iterates present values in index order.
+     *
+     * @return
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            int next = skip(0);
+
+            private int skip(int from) {
+                while (from < size && values[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if (next >= size) {
+                    throw new NoSuchElementException("No more values");
+                }
+                T value = (T) values[next];
+                next = skip(next + 1);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Visit every error with its index, in index order.
+     *
+     * @param action
+     */
+    public void forEachError(ObjIntConsumer<? super Throwable> action) {
+        Objects.requireNonNull(action);
+        int rank = 0;
+        int words = words(size);
+        for (int w = 0; w < words; w++) {
+            long word = failed[w];
+            while (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                action.accept(errors[rank++], index);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     *
+     * @return read-only view of errors in index order
+     */
+    public List<Throwable> getErrors() {
+        return new AbstractList<Throwable>() {
+            @Override
+            public Throwable get(int index) {
+                if (index < 0 || index >= errorCount) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + errorCount);
+                }
+                return errors[index];
+            }
+
+            @Override
+            public int size() {
+                return errorCount;
+            }
+        };
+    }
+
+    /**
+     * Like {@link SafeOpt#sequence(java.util.Collection)}, the first element
+     * without a value decides the result.
+     *
+     * @return {@code SafeOpt} of all values, or the first error or empty
+     * result
+     */
+    public SafeOpt<List<T>> toSafeOpt() {
+        if (valueCount < size) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == null) {
+                    return isError(i) ? new SafeOptVal<>(null, errors[errorRank(i)]) : SafeOpt.empty();
+                }
+            }
+        }
+        return new SafeOptVal<>((List<T>) Arrays.asList(Arrays.copyOf(values, size)), null);
+    }
+
+}
@@ -0,0 +1,490 @@
+package lt.lb.uncheckedutils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lt.lb.uncheckedutils.SafeOptCollectors.Partition;
+import lt.lb.uncheckedutils.func.UncheckedConsumer;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ *
+ * Multi-valued {@link SafeOpt} counterpart. Lazy sequence over a source
+ * {@link Iterable}, where every element is either a value or a captured
+ * error. Operations are fused and applied element by element, only when a
+ * terminal operation (or a {@link Cursor}) pulls elements, without a
+ * {@code SafeOpt} per element.
+ *
+ * {@code null} results of mapping are dropped, just like empty
+ * {@code SafeOpt}.
+ *
+ * Sequence itself is immutable and can be evaluated many times, every
+ * evaluation iterates the source again, unless {@link #memoize()} is used.
+ *
+ * @author laim0nas100
+ * @param <T>
+ */
+public class SafeSeq<T> {
+
+    /**
+     * Receives sequence elements, exactly one of value or error is present.
+     *
+     * @param <T>
+     */
+    @FunctionalInterface
+    public static interface ElementSink<T> {
+
+        /**
+         *
+         * @param value
+         * @param error
+         * @return {@code false} to stop
+         */
+        public boolean accept(T value, Throwable error);
+    }
+
+    /**
+     * Pushes source elements, one advance at a time.
+     */
+    protected static interface Source {
+
+        /**
+         *
+         * @param sink
+         * @return {@code false} if exhausted or sink asked to stop
+         */
+        public boolean advance(ElementSink<Object> sink);
+    }
+
+    private static final SafeSeq EMPTY = new SafeSeq<>(() -> sink -> false, identityPipe());
+
+    /**
+     * Creates new {@link Source} for every evaluation.
+     */
+    protected final Supplier<? extends Source> source;
+    /**
+     * Fused operations, wraps terminal sink into a source sink.
+     */
+    protected final Function<ElementSink<T>, ElementSink<Object>> pipe;
+
+    protected SafeSeq(Supplier<? extends Source> source, Function<ElementSink<T>, ElementSink<Object>> pipe) {
+        this.source = Objects.requireNonNull(source);
+        this.pipe = Objects.requireNonNull(pipe);
+    }
+
+    private static <T> Function<ElementSink<T>, ElementSink<Object>> identityPipe() {
+        return (Function) Function.identity();
+    }
+
+    /**
+     * Sequence of given elements. {@code null} elements are skipped. Exception
+     * thrown by the iterator is captured as the last element.
+     *
+     * @param <T>
+     * @param source
+     * @return
+     */
+    public static <T> SafeSeq<T> of(Iterable<? extends T> source) {
+        Objects.requireNonNull(source, "Null source");
+        return new SafeSeq<>(() -> new IterableSource(source), identityPipe());
+    }
+
+    /**
+     * Sequence of given elements. {@code null} elements are skipped.
+     *
+     * @param <T>
+     * @param items
+     * @return
+     */
+    public static <T> SafeSeq<T> of(T... items) {
+        return of(Arrays.asList(items));
+    }
+
+    /**
+     * Empty sequence.
+     *
+     * @param <T>
+     * @return
+     */
+    public static <T> SafeSeq<T> empty() {
+        return EMPTY;
+    }
+
+    private static class IterableSource implements Source {
+
+        private final Iterable<?> iterable;
+        private Iterator<?> iterator;
+
+        IterableSource(Iterable<?> iterable) {
+            this.iterable = iterable;
+        }
+
+        @Override
+        public boolean advance(ElementSink<Object> sink) {
+            Object next;
+            try {
+                if (iterator == null) {
+                    iterator = iterable.iterator();
+                }
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                next = iterator.next();
+            } catch (Throwable t) {
+                sink.accept(null, NestedException.unwrap(t));
+                return false;// broken iterator, don't try again
+            }
+            return next == null || sink.accept(next, null);
+        }
+    }
+
+    protected <R> SafeSeq<R> then(Function<ElementSink<R>, ElementSink<T>> stage) {
+        Function<ElementSink<T>, ElementSink<Object>> p = pipe;
+        return new SafeSeq<>(source, (ElementSink<R> down) -> p.apply(stage.apply(down)));
+    }
+
+    /**
+     * Lazily map every value. Captures any exception as error of that element.
+     *
+     * @param <R>
+     * @param mapper
+     * @return
+     */
+    public <R> SafeSeq<R> map(UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(mapper, "Null map function");
+        return then(down -> (v, e) -> {
+            if (e != null) {
+                return down.accept(null, e);
+            }
+            R r;
+            try {
+                r = mapper.applyUnchecked(v);
+            } catch (Throwable t) {
+                return down.accept(null, NestedException.unwrap(t));
+            }
+            return r == null || down.accept(r, null);
+        });
+    }
+
+    /**
+     * Lazily keep only values, that match the predicate. Captures any
+     * exception as error of that element.
+     *
+     * @param predicate
+     * @return
+     */
+    public SafeSeq<T> filter(Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "Null predicate");
+        return then(down -> (v, e) -> {
+            if (e != null) {
+                return down.accept(null, e);
+            }
+            boolean keep;
+            try {
+                keep = predicate.test(v);
+            } catch (Throwable t) {
+                return down.accept(null, NestedException.unwrap(t));
+            }
+            return !keep || down.accept(v, null);
+        });
+    }
+
+    /**
+     * Lazily replace every value with zero or more values. Captures any
+     * exception (also from iterating the result) as error, following the
+     * values produced before it.
+     *
+     * @param <R>
+     * @param mapper
+     * @return
+     */
+    public <R> SafeSeq<R> flatMap(UncheckedFunction<? super T, ? extends Iterable<? extends R>> mapper) {
+        Objects.requireNonNull(mapper, "Mapping function was null");
+        return then(down -> (v, e) -> {
+            if (e != null) {
+                return down.accept(null, e);
+            }
+            try {
+                Iterable<? extends R> items = mapper.applyUnchecked(v);
+                if (items == null) {
+                    return true;
+                }
+                for (R r : items) {
+                    if (r != null && !down.accept(r, null)) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (Throwable t) {
+                return down.accept(null, NestedException.unwrap(t));
+            }
+        });
+    }
+
+    /**
+     * Lazily invoke consumer with every value. Captures any exception as error
+     * of that element.
+     *
+     * @param action
+     * @return
+     */
+    public SafeSeq<T> peek(UncheckedConsumer<? super T> action) {
+        Objects.requireNonNull(action, "action cannot be null");
+        return then(down -> (v, e) -> {
+            if (e != null) {
+                return down.accept(null, e);
+            }
+            try {
+                action.acceptUnchecked(v);
+            } catch (Throwable t) {
+                return down.accept(null, NestedException.unwrap(t));
+            }
+            return down.accept(v, null);
+        });
+    }
+
+    /**
+     * Lazily invoke consumer with every error. If consumer throws any errors
+     * they are not caught.
+     *
+     * @param errorCons
+     * @return
+     */
+    public SafeSeq<T> peekError(Consumer<Throwable> errorCons) {
+        Objects.requireNonNull(errorCons);
+        return then(down -> (v, e) -> {
+            if (e != null) {
+                errorCons.accept(e);
+            }
+            return down.accept(v, e);
+        });
+    }
+
+    /**
+     * Sequence, that evaluates the operations at most once per element and
+     * caches elements (values and errors) as they are pulled. Partially
+     * evaluated sequence resumes where the previous evaluation stopped. Safe
+     * to evaluate from many threads.
+     *
+     * @return
+     */
+    public SafeSeq<T> memoize() {
+        Memo memo = new Memo(this);
+        return new SafeSeq<>(() -> new MemoSource(memo), identityPipe());
+    }
+
+    private static final class ErrorBox {
+
+        final Throwable error;
+
+        ErrorBox(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    private static final class Memo {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayList<Object> items = new ArrayList<>();
+        final SafeSeq<?> seq;
+        Source upstream;
+        ElementSink<Object> head;
+        boolean exhausted;
+
+        Memo(SafeSeq<?> seq) {
+            this.seq = seq;
+        }
+
+        /**
+         * Get cached element, pulling more if needed. Must hold the lock.
+         *
+         * @param index
+         * @return element or {@code null} if exhausted
+         */
+        Object get(int index) {
+            if (upstream == null && !exhausted) {
+                upstream = seq.source.get();
+                head = ((SafeSeq<Object>) seq).pipe.apply((v, e) -> {
+                    items.add(e == null ? v : new ErrorBox(e));
+                    return true;
+                });
+            }
+            while (index >= items.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                if (!upstream.advance(head)) {
+                    exhausted = true;
+                    upstream = null;// release the source
+                    head = null;
+                }
+            }
+            return items.get(index);
+        }
+    }
+
+    private static final class MemoSource implements Source {
+
+        private final Memo memo;
+        private int index;
+
+        MemoSource(Memo memo) {
+            this.memo = memo;
+        }
+
+        @Override
+        public boolean advance(ElementSink<Object> sink) {
+            Object item;
+            memo.lock.lock();
+            try {
+                item = memo.get(index);
+            } finally {
+                memo.lock.unlock();
+            }
+            if (item == null) {
+                return false;
+            }
+            index++;
+            if (item instanceof ErrorBox) {
+                return sink.accept(null, ((ErrorBox) item).error);
+            }
+            return sink.accept(item, null);
+        }
+    }
+
+    /**
+     * Resumable evaluation of a sequence, in chunks. Not thread-safe.
+     *
+     * @param <T>
+     */
+    public static class Cursor<T> {
+
+        private final Source source;
+        private final ElementSink<Object> head;
+        private Partition<T> chunk;
+        private boolean exhausted;
+
+        protected Cursor(SafeSeq<T> seq) {
+            this.source = seq.source.get();
+            this.head = seq.pipe.apply((v, e) -> {
+                chunk.add(v, e);
+                return true;
+            });
+        }
+
+        /**
+         * Evaluate next chunk of at least given amount of elements (values and
+         * errors), unless the sequence is exhausted. Operations like
+         * {@code flatMap} can make the chunk bigger.
+         *
+         * @param size
+         * @return
+         */
+        public Partition<T> next(int size) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive, got " + size);
+            }
+            Partition<T> part = new Partition<>();
+            chunk = part;
+            while (!exhausted && part.values.size() + part.errors.size() < size) {
+                if (!source.advance(head)) {
+                    exhausted = true;
+                }
+            }
+            chunk = null;
+            return part;
+        }
+
+        /**
+         *
+         * @return {@code true} if no more elements are left
+         */
+        public boolean isExhausted() {
+            return exhausted;
+        }
+    }
+
+    /**
+     * Start resumable evaluation.
+     *
+     * @return
+     */
+    public Cursor<T> cursor() {
+        return new Cursor<>(this);
+    }
+
+    /**
+     * Evaluate, pushing every element to the sink, until the sink asks to
+     * stop.
+     *
+     * @param sink
+     */
+    public void forEach(ElementSink<? super T> sink) {
+        Objects.requireNonNull(sink);
+        Source src = source.get();
+        ElementSink<Object> head = pipe.apply((ElementSink<T>) sink);
+        while (src.advance(head)) {
+        }
+    }
+
+    /**
+     * Evaluate, stopping at the first error (short-circuit).
+     *
+     * @return {@code SafeOpt} of all values, or the first error
+     */
+    public SafeOpt<List<T>> toList() {
+        ArrayList<T> values = new ArrayList<>();
+        Throwable[] error = new Throwable[1];
+        forEach((v, e) -> {
+            if (e != null) {
+                error[0] = e;
+                return false;
+            }
+            values.add(v);
+            return true;
+        });
+        return error[0] == null ? SafeOpt.of(Collections.unmodifiableList(values)) : SafeOpt.error(error[0]);
+    }
+
+    /**
+     * Evaluate every element, collecting values and errors.
+     *
+     * @return
+     */
+    public Partition<T> collectAll() {
+        Partition<T> part = new Partition<>();
+        forEach((v, e) -> {
+            part.add(v, e);
+            return true;
+        });
+        return part;
+    }
+
+    /**
+     * Evaluate until the first element.
+     *
+     * @return {@code SafeOpt} of the first value, or the first error if it
+     * comes before any value, or empty
+     */
+    public SafeOpt<T> findFirst() {
+        Object[] first = new Object[2];
+        forEach((v, e) -> {
+            first[0] = v;
+            first[1] = e;
+            return false;
+        });
+        if (first[1] != null) {
+            return SafeOpt.error((Throwable) first[1]);
+        }
+        return SafeOpt.ofNullable((T) first[0]);
+    }
+
+}
@@ -0,0 +1,245 @@
+package lt.lb.uncheckedutils;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * {@link Stream} utilities with exception capturing.
+ *
+ * @author laim0nas100
+ */
+public final class SafeStreams {
+
+    private SafeStreams() {
+    }
+
+    /**
+     * Decides when to stop a stream after a captured error.
+     */
+    @FunctionalInterface
+    public static interface ErrorPolicy {
+
+        /**
+         *
+         * @param error captured error
+         * @param errorCount errors captured so far, including this one
+         * @return {@code true} if stream should stop
+         */
+        public boolean shouldStop(Throwable error, long errorCount);
+
+        /**
+         * Never stop, capture every error.
+         *
+         * @return
+         */
+        public static ErrorPolicy continueAll() {
+            return CONTINUE_ALL;
+        }
+
+        /**
+         * Stop after given amount of errors.
+         *
+         * @param maxErrors
+         * @return
+         */
+        public static ErrorPolicy stopAfter(long maxErrors) {
+            if (maxErrors <= 0) {
+                throw new IllegalArgumentException("maxErrors must be positive, got " + maxErrors);
+            }
+            return (error, count) -> count >= maxErrors;
+        }
+
+        /**
+         * Stop at the first {@link Error}, continue on exceptions.
+         *
+         * @return
+         */
+        public static ErrorPolicy stopOnError() {
+            return (error, count) -> error instanceof Error;
+        }
+
+        /**
+         * Stop at the first error of given type.
+         *
+         * @param type
+         * @return
+         */
+        public static ErrorPolicy stopOn(Class<? extends Throwable> type) {
+            Objects.requireNonNull(type);
+            return (error, count) -> type.isInstance(error);
+        }
+
+        /**
+         * Stop if this or other policy says so.
+         *
+         * @param other
+         * @return
+         */
+        public default ErrorPolicy or(ErrorPolicy other) {
+            Objects.requireNonNull(other);
+            return (error, count) -> shouldStop(error, count) || other.shouldStop(error, count);
+        }
+    }
+
+    private static final ErrorPolicy CONTINUE_ALL = (error, count) -> false;
+
+    /**
+     * Map every element, passing only successful non-null results downstream.
+     * Captured exceptions (unwrapping {@link NestedException}) go to the error
+     * sink, which must be thread-safe for parallel streams. Every error is
+     * captured.
+     *
+     * @param <T>
+     * @param <R>
+     * @param stream
+     * @param mapper
+     * @param errorSink
+     * @return
+     */
+    public static <T, R> Stream<R> mapSafe(Stream<T> stream, UncheckedFunction<? super T, ? extends R> mapper, Consumer<? super Throwable> errorSink) {
+        return mapSafe(stream, mapper, errorSink, CONTINUE_ALL);
+    }
+
+    /**
+     * Map every element, passing only successful non-null results downstream.
+     * Captured exceptions (unwrapping {@link NestedException}) go to the error
+     * sink, which must be thread-safe for parallel streams. After policy
+     * decides to stop, no more elements are mapped in any split. Parallel
+     * streams can capture a few more errors than policy allows, from mappings
+     * already in progress.
+     *
+     * @param <T>
+     * @param <R>
+     * @param stream
+     * @param mapper
+     * @param errorSink
+     * @param policy
+     * @return
+     */
+    public static <T, R> Stream<R> mapSafe(Stream<T> stream, UncheckedFunction<? super T, ? extends R> mapper, Consumer<? super Throwable> errorSink, ErrorPolicy policy) {
+        Objects.requireNonNull(stream, "Null stream");
+        Objects.requireNonNull(mapper, "Null map function");
+        Objects.requireNonNull(errorSink, "Null error sink");
+        Objects.requireNonNull(policy, "Null error policy");
+        MapSafeState<T, R> state = new MapSafeState<>(mapper, errorSink, policy);
+        return StreamSupport.stream(new MapSafeSpliterator<>(stream.spliterator(), state), stream.isParallel())
+                .onClose(stream::close);
+    }
+
+    /**
+     * State shared between splits.
+     */
+    private static class MapSafeState<T, R> {
+
+        final UncheckedFunction<? super T, ? extends R> mapper;
+        final Consumer<? super Throwable> errorSink;
+        final ErrorPolicy policy;
+        final AtomicLong errorCount = new AtomicLong();
+        volatile boolean stopped;
+
+        MapSafeState(UncheckedFunction<? super T, ? extends R> mapper, Consumer<? super Throwable> errorSink, ErrorPolicy policy) {
+            this.mapper = mapper;
+            this.errorSink = errorSink;
+            this.policy = policy;
+        }
+
+        void error(Throwable t) {
+            Throwable error = NestedException.unwrap(t);
+            long count = errorCount.incrementAndGet();
+            errorSink.accept(error);
+            if (policy.shouldStop(error, count)) {
+                stopped = true;
+            }
+        }
+    }
+
+    private static class MapSafeSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+
+        private final Spliterator<T> source;
+        private final MapSafeState<T, R> state;
+        private R result;
+
+        MapSafeSpliterator(Spliterator<T> source, MapSafeState<T, R> state) {
+            this.source = source;
+            this.state = state;
+        }
+
+        /**
+         * Maps source element into {@link #result}.
+         *
+         * @param item
+         */
+        @Override
+        public void accept(T item) {
+            try {
+                result = state.mapper.applyUnchecked(item);
+            } catch (Throwable t) {
+                state.error(t);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (!state.stopped) {
+                if (!source.tryAdvance(this)) {
+                    return false;
+                }
+                R r = result;
+                if (r != null) {
+                    result = null;
+                    action.accept(r);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            if (state.policy != CONTINUE_ALL) {
+                while (tryAdvance(action)) {
+                }
+                return;
+            }
+            source.forEachRemaining(item -> {
+                R r;
+                try {
+                    r = state.mapper.applyUnchecked(item);
+                } catch (Throwable t) {
+                    state.error(t);
+                    return;
+                }
+                if (r != null) {
+                    action.accept(r);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            if (state.stopped) {
+                return null;
+            }
+            Spliterator<T> split = source.trySplit();
+            return split == null ? null : new MapSafeSpliterator<>(split, state);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            // mapped and filtered
+            return (source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT)) | NONNULL;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package lt.lb.uncheckedutils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} and {@link Iterator} of zero or one element. Backs
+ * {@link SafeOpt#stream()} without intermediate iterator adapters.
+ *
+ * @author laim0nas100
+ */
+final class SingleSpliterator<T> implements Spliterator<T>, Iterator<T> {
+
+    static final int CHARACTERISTICS = SIZED | SUBSIZED | IMMUTABLE | NONNULL | ORDERED;
+
+    private T value;
+
+    /**
+     *
+     * @param value {@code null} means no element
+     */
+    SingleSpliterator(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        T v = value;
+        if (v == null) {
+            return false;
+        }
+        value = null;
+        action.accept(v);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        tryAdvance(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return value == null ? 0 : 1;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return value != null;
+    }
+
+    @Override
+    public T next() {
+        T v = value;
+        if (v == null) {
+            throw new NoSuchElementException("No more elements");
+        }
+        value = null;
+        return v;
+    }
+
+}
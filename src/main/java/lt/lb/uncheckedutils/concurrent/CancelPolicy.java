@@ -1,6 +1,7 @@
 package lt.lb.uncheckedutils.concurrent;
 
 import java.util.Collection;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicReference;
 import lt.lb.uncheckedutils.CancelException;
@@ -20,6 +21,7 @@ public class CancelPolicy {
 
     private final CancelPolicy parent;
     private final Collection<CancelPolicy> children = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Runnable> cancelListeners = new ConcurrentLinkedDeque<>();
 
     private final AtomicReference<Throwable> state = new AtomicReference<>();
     private final AtomicReference<SafeOpt> cancelledSource = new AtomicReference<>();
@@ -84,6 +86,7 @@ public class CancelPolicy {
                 }
                 child.cancel(csource, error);
             }
+            fireCancelListeners();
             if (interruptableAwait) {
                 interruptParkedThreads();
             }
@@ -103,12 +106,51 @@ public class CancelPolicy {
                 }
                 child.cancelOnCompletion(source);
             }
+            fireCancelListeners();
             if (interruptableAwait) {
                 interruptParkedThreads();
             }
         }
     }
 
+    /**
+     * Run given action once, when this policy or any of its parents is
+     * cancelled, or right now if it already is. Runs in the cancelling thread,
+     * so it should be cheap.
+     *
+     * @param action
+     */
+    public void addCancelListener(Runnable action) {
+        Objects.requireNonNull(action);
+        cancelListeners.add(action);
+        if (cancelled() && cancelListeners.remove(action)) {// maybe cancelled before it was added
+            action.run();
+        }
+    }
+
+    /**
+     *
+     * @param action
+     * @return {@code true} if action was registered and has not run yet
+     */
+    public boolean removeCancelListener(Runnable action) {
+        return cancelListeners.remove(action);
+    }
+
+    private void fireCancelListeners() {
+        Runnable action;
+        while ((action = cancelListeners.poll()) != null) {
+            try {
+                action.run();
+            } catch (Throwable ignored) {
+                // listeners must not stop the cancellation
+                if (DEBUG) {
+                    System.out.println("Cancel listener failed:" + ignored);
+                }
+            }
+        }
+    }
+
     public boolean cancelled() {
         if (parent != null) {
             if (parent.cancelled()) {
@@ -154,6 +196,10 @@ public class CancelPolicy {
         return parkedThreads.unpark(idx);
     }
 
+    /**
+     * Interrupt threads, that still run or wait for work of this policy. The
+     * interrupt is cleared, when such thread is done with that work.
+     */
     public void interruptParkedThreads() {
         if (parkedThreads == null) {
             return;
@@ -161,12 +207,7 @@ public class CancelPolicy {
         if (DEBUG) {
             System.out.println("Interrupt live threads");
         }
-        for (Thread thread : parkedThreads.getAliveThreads()) {
-            thread.interrupt();
-            if (DEBUG) {
-                System.out.println("Interrupt" + thread.getName() + thread.getId());
-            }
-        }
+        parkedThreads.interruptParked();
     }
 
 }
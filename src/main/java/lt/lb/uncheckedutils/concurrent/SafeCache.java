@@ -0,0 +1,281 @@
+package lt.lb.uncheckedutils.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * Concurrent loading cache of {@code SafeOpt} results. Failed (or empty)
+ * results are cached too, for their own, usually shorter time, so a failing
+ * backend is not called by every caller again. Concurrent loads of the same
+ * key are collapsed into one, other callers wait for its result.
+ *
+ * Size is bounded, after it is exceeded, expired entries and then the least
+ * frequently used entries are evicted in a batch. Usage frequencies saturate at
+ * {@link #MAX_FREQUENCY} and are halved after every {@link #AGING_FACTOR} times
+ * maximum size of counted uses (loads and frequency increments), so old
+ * popularity fades, even if the cache never fills up.
+ *
+ * @author laim0nas100
+ * @param <K>
+ * @param <V>
+ */
+public class SafeCache<K, V> {
+
+    protected class Entry {
+
+        protected final K key;
+        protected final FutureTask<SafeOpt<V>> load;
+        /**
+         * {@link System#nanoTime()} after which entry is expired, only valid
+         * when load is done.
+         */
+        protected volatile long expiresAt;
+        /**
+         * Approximate usage count, at most {@link #MAX_FREQUENCY}, lost
+         * updates are fine.
+         */
+        protected volatile int frequency = 1;
+
+        protected Entry(K key) {
+            this.key = key;
+            this.load = new FutureTask<>(() -> {
+                used();
+                SafeOpt<V> result = SafeOpt.ofGet(() -> loader.applyUnchecked(key));
+                expiresAt = System.nanoTime() + (result.isPresent() ? ttlNanos : failureTtlNanos);
+                return result;
+            });
+        }
+
+        protected boolean isExpired(long now) {
+            return load.isDone() && now - expiresAt >= 0;
+        }
+
+        protected void touch() {
+            int f = frequency;
+            if (f < MAX_FREQUENCY) {// saturated hot entries do not count, like the rest of their uses
+                frequency = f + 1;
+                used();
+            }
+        }
+
+    }
+
+    /**
+     * How many counted uses, relative to maximum size, happen between halving
+     * of usage frequencies.
+     */
+    public static final int AGING_FACTOR = 10;
+
+    /**
+     * Usage frequency stops growing here, so it never overflows and a hot
+     * entry fades after a few agings.
+     */
+    public static final int MAX_FREQUENCY = 255;
+
+    protected final UncheckedFunction<? super K, ? extends V> loader;
+    protected final ConcurrentHashMap<K, Entry> map = new ConcurrentHashMap<>();
+    protected final ReentrantLock evictionLock = new ReentrantLock();
+    protected final AtomicInteger usesSinceAging = new AtomicInteger();
+    protected final int agingThreshold;
+    protected final int maximumSize;
+    protected final long ttlNanos;
+    protected final long failureTtlNanos;
+
+    /**
+     *
+     * @param loader
+     * @param maximumSize maximum amount of entries
+     * @param ttl how long present results are kept
+     * @param failureTtl how long errors and empty results are kept
+     */
+    public SafeCache(UncheckedFunction<? super K, ? extends V> loader, int maximumSize, Duration ttl, Duration failureTtl) {
+        this.loader = Objects.requireNonNull(loader, "Null loader");
+        Objects.requireNonNull(ttl, "Null ttl");
+        Objects.requireNonNull(failureTtl, "Null failure ttl");
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, got " + maximumSize);
+        }
+        if (ttl.isNegative() || failureTtl.isNegative()) {
+            throw new IllegalArgumentException("Negative ttl");
+        }
+        this.maximumSize = maximumSize;
+        this.agingThreshold = (int) Math.min(Integer.MAX_VALUE, (long) maximumSize * AGING_FACTOR);
+        this.ttlNanos = saturatedNanos(ttl);
+        this.failureTtlNanos = saturatedNanos(failureTtl);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException ex) {
+            return Long.MAX_VALUE / 2;// still safe to add to nanoTime
+        }
+    }
+
+    /**
+     * Get cached result, or load it. If the same key is already loading, wait
+     * for that load instead of starting another one.
+     *
+     * @param key
+     * @return
+     */
+    public SafeOpt<V> get(K key) {
+        Objects.requireNonNull(key, "Null key");
+        Entry entry = map.get(key);
+        for (;;) {
+            if (entry == null) {
+                Entry created = new Entry(key);
+                entry = map.putIfAbsent(key, created);
+                if (entry == null) {
+                    entry = created;
+                    if (map.size() > maximumSize) {
+                        evict();
+                    }
+                    break;
+                }
+            } else if (entry.isExpired(System.nanoTime())) {
+                Entry created = new Entry(key);
+                if (map.replace(key, entry, created)) {
+                    entry = created;
+                    break;
+                }
+                entry = map.get(key);
+            } else {
+                entry.touch();
+                break;
+            }
+        }
+        entry.load.run();// only the first caller loads, does nothing if already running or done
+        return await(entry);
+    }
+
+    /**
+     *
+     * @param key
+     * @return cached result, or empty {@code SafeOpt} if there is no loaded
+     * and not expired result
+     */
+    public SafeOpt<V> getIfPresent(K key) {
+        Objects.requireNonNull(key, "Null key");
+        Entry entry = map.get(key);
+        if (entry == null || !entry.load.isDone() || entry.isExpired(System.nanoTime())) {
+            return SafeOpt.empty();
+        }
+        entry.touch();
+        return await(entry);
+    }
+
+    protected SafeOpt<V> await(Entry entry) {
+        try {
+            return entry.load.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return SafeOpt.error(ex);
+        } catch (ExecutionException ex) { // should not happen, since SafeOpt captures exceptions
+            Throwable cause = ex.getCause();
+            return SafeOpt.error(cause == null ? ex : cause);
+        }
+    }
+
+    /**
+     * Remove given key, loads in progress still complete for their callers.
+     *
+     * @param key
+     */
+    public void invalidate(K key) {
+        map.remove(Objects.requireNonNull(key, "Null key"));
+    }
+
+    public void invalidateAll() {
+        map.clear();
+    }
+
+    /**
+     *
+     * @return amount of entries, including expired and loading ones
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Remove expired entries, then the least frequently used ones, until size
+     * is below the maximum with some slack, so eviction is not repeated on
+     * every insert. Only one thread evicts, others just proceed.
+     */
+    protected void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maximumSize - (maximumSize >>> 3);
+            long now = System.nanoTime();
+            List<Entry> live = new ArrayList<>(map.size());
+            for (Map.Entry<K, Entry> e : map.entrySet()) {
+                Entry entry = e.getValue();
+                if (entry.isExpired(now)) {
+                    map.remove(e.getKey(), entry);
+                } else if (entry.load.isDone()) {// loading entries are never evicted
+                    live.add(entry);
+                }
+            }
+            int excess = map.size() - target;
+            if (excess > 0) {
+                // frequency snapshot in high bits, index in low bits, frequencies change while sorting
+                long[] order = new long[live.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = ((long) live.get(i).frequency << 32) | i;
+                }
+                Arrays.sort(order);
+                for (int i = 0; i < excess && i < order.length; i++) {
+                    Entry entry = live.get((int) order[i]);
+                    map.remove(entry.key, entry);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Count a load or a frequency increment, age frequencies after enough of
+     * them.
+     */
+    protected void used() {
+        if (usesSinceAging.incrementAndGet() >= agingThreshold) {
+            age();
+        }
+    }
+
+    /**
+     * Halve every usage frequency. Only one thread ages, others just proceed.
+     */
+    protected void age() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (usesSinceAging.get() < agingThreshold) {// aged in the meantime
+                return;
+            }
+            usesSinceAging.set(0);
+            for (Entry entry : map.values()) {
+                entry.frequency >>= 1;
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+}
@@ -1,19 +1,37 @@
 package lt.lb.uncheckedutils.concurrent;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import lt.lb.uncheckedutils.SafeOpt;
 import lt.lb.uncheckedutils.SafeOptBase;
+import lt.lb.uncheckedutils.NestedException;
+import lt.lb.uncheckedutils.PassableException;
 import lt.lb.uncheckedutils.SafeOptCollapse;
+import lt.lb.uncheckedutils.func.UncheckedConsumer;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
 import static lt.lb.uncheckedutils.concurrent.ThreadLocalParkSpace.thread;
 
 /**
@@ -30,66 +48,117 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
 
         protected final SafeOpt first;
         protected final CancelPolicy cp;
-        protected final Deque<FutureTask<SafeOpt>> workQueue = new ArrayDeque<>();
+        /**
+         * Deadline of every stage in this work, or {@code null}.
+         */
+        protected final Deadline deadline;
+        /**
+         * Many producers (chain extensions), single consumer (the thread that
+         * moved state out of INACTIVE).
+         */
+        protected final Queue<FutureTask<SafeOpt>> workQueue = new ConcurrentLinkedQueue<>();
 
+        /**
+         * Only changed via {@link #casState(int, int)}, except by the consumer,
+         * that owns the work while ACTIVE.
+         */
         protected volatile int state = INACTIVE;
 
         public static final int INACTIVE = 0;
         public static final int SUBMITTED = 1;
         public static final int ACTIVE = 2;
 
-        /**
-         * state and workQueue must be read and written only whilst holding this
-         * lock
-         */
-        protected final ReentrantLock lock = new ReentrantLock(true);
+        private static final AtomicIntegerFieldUpdater<AsyncWork> STATE = AtomicIntegerFieldUpdater.newUpdater(AsyncWork.class, "state");
+
+        protected boolean casState(int expect, int update) {
+            return STATE.compareAndSet(this, expect, update);
+        }
 
         private FutureTask<SafeOpt> getNext() {
-            try {
-                lock.lock(); // dont interrupt, we need to process every submitted task anyway
-                for (;;) {
-                    FutureTask<SafeOpt> next = workQueue.poll();
-                    if (next == null) {
-                        state = INACTIVE;
-                        return null;
-                    }
+            for (;;) {
+                FutureTask<SafeOpt> next = workQueue.poll();
+                if (next != null) {
                     if (next.isDone()) {
                         continue;
                     }
                     //found active
-                    state = ACTIVE;
                     return next;
                 }
-            } finally {
-                lock.unlock();
+                state = INACTIVE;
+                // task might have been added after poll, but before state change, so its producer saw us still working
+                if (workQueue.isEmpty() || !casState(INACTIVE, ACTIVE)) {
+                    return null;
+                }
             }
+        }
 
+        /**
+         * Move INACTIVE work with pending tasks to SUBMITTED, so only the
+         * caller of this method should run it. Work handed over from a
+         * foreign thread, but not started yet, can be taken over too, since
+         * the submitter might have no free thread for it.
+         *
+         * @return {@code true} if work should be resumed by the caller
+         */
+        protected boolean tryResume() {
+            int s = state;
+            if (s == SUBMITTED) {
+                return handedOver;
+            }
+            return s == INACTIVE && !workQueue.isEmpty() && casState(INACTIVE, SUBMITTED);
         }
 
+        /**
+         * Submitted by {@link #addMaybeSubmitDetached(Submitter, FutureTask)},
+         * not started yet.
+         */
+        protected volatile boolean handedOver;
+
         public boolean addMaybeSubmit(Submitter submitter, FutureTask<SafeOpt> task) {
-            lock.lock();
-            try {
-                workQueue.add(task);//always add to work queue
-                if (state == INACTIVE) {//start or restart thread, but only once
-                    state = SUBMITTED;
-                    submitter.submit(this);
-                    return true;
-                }
-                return false;
-            } finally {
-                lock.unlock();
+            workQueue.add(task);//always add to work queue
+            if (state == INACTIVE && casState(INACTIVE, SUBMITTED)) {//start or restart thread, but only once
+                submitter.submit(this);
+                return true;
             }
+            return false;
+        }
+
+        /**
+         * Like {@link #addMaybeSubmit(Submitter, FutureTask)}, but called from
+         * a callback in a foreign thread, so the work is handed over with
+         * {@link Submitter#submitDetached(AsyncWork)}, and waiting threads are
+         * woken up to take it over.
+         *
+         * @param submitter
+         * @param task
+         * @return
+         */
+        public boolean addMaybeSubmitDetached(Submitter submitter, FutureTask<SafeOpt> task) {
+            workQueue.add(task);
+            if (state == INACTIVE && casState(INACTIVE, SUBMITTED)) {
+                handedOver = true;
+                submitter.submitDetached(this);
+                signalWaiters();
+                return true;
+            }
+            return false;
         }
 
         public AsyncWork(SafeOpt first, CancelPolicy cp) {
+            this(first, cp, null);
+        }
+
+        public AsyncWork(SafeOpt first, CancelPolicy cp, Deadline deadline) {
             this.first = first;
             this.cp = cp;
+            this.deadline = deadline;
         }
 
         @Override
         public void run() {
-            // demand the state is SUBMITTED
-            if (state == SUBMITTED) {
+            // demand the state is SUBMITTED, only one runner
+            if (casState(SUBMITTED, ACTIVE)) {
+                handedOver = false;
                 logic();
             }
         }
@@ -99,48 +168,208 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
             if (cp != null) { // can be interrupted if using SafeScope by other related AsyncWorkers
                 park = cp.parkIfSupported();
             }
+            boolean drained = false;
+            try {
+                for (;;) {
+                    try {
+                        FutureTask<SafeOpt> next = getNext();
+                        if (next == null) {
+                            drained = true;
+                            break;
+                        }
 
-            for (;;) {
-                try {
-                    FutureTask<SafeOpt> next = getNext();
-                    if (next == null) {
-                        break;
-                    }
+                        // not done
+                        if (cp != null && cp.cancelled()) {
+                            if (DEBUG) {
+                                System.out.println(thread() + " Cancelled without running");
+                            }
+                            next.cancel(cp.interruptableAwait);
+                            continue;
+                        }
 
-                    // not done
-                    if (cp != null && cp.cancelled()) {
-                        if (DEBUG) {
-                            System.out.println(thread() + " Cancelled without running");
+                        if (deadline != null) {
+                            deadline.running = next;
+                        }
+                        try {
+                            next.run();
+                        } finally {
+                            if (deadline != null) {
+                                deadline.running = null;
+                            }
+                        }
+                        SafeOpt get = next.get();
+                        if (cp != null && cp.cancelOnError && get.hasError()) {
+                            cp.cancel(first, get.rawException());
+                            if (DEBUG) {
+                                System.out.println(thread() + " Cancelled after running");
+                            }
                         }
-                        next.cancel(cp.interruptableAwait);
-                        continue;
-                    }
 
-                    next.run();
-                    SafeOpt get = next.get();
-                    if (cp != null && cp.cancelOnError && get.hasError()) {
-                        cp.cancel(first, get.rawException());
+                    } catch (CancellationException | ExecutionException | InterruptedException discard) {
                         if (DEBUG) {
-                            System.out.println(thread() + " Cancelled after running");
+                            System.out.println(thread() + " Discarded:" + discard.getClass().getSimpleName() + " " + discard.getMessage());
                         }
-                    }
+                        //every FutureTask is a mapping to SafeOpt. SafeOpt never throws by desing
+                        //only way to get here is by unlikely thread race condition if it is cancelled after checking isDone,
+                        //even then it should be handled by collapse method
 
-                } catch (CancellationException | ExecutionException | InterruptedException discard) {
-                    if (DEBUG) {
-                        System.out.println(thread() + " Discarded:" + discard.getClass().getSimpleName() + " " + discard.getMessage());
                     }
-                    //every FutureTask is a mapping to SafeOpt. SafeOpt never throws by desing
-                    //only way to get here is by unlikely thread race condition if it is cancelled after checking isDone,
-                    //even then it should be handled by collapse method
 
                 }
+            } finally {
+                if (!drained) { // this thread is leaving with work still queued, let waiters resume it
+                    state = INACTIVE;
+                }
+                if (park >= 0) {
+                    cp.unparkIfSupported(park);
+                }
+                signalWaiters();
+            }
+        }
+
+        /**
+         * Thread waiting in {@link SafeOptAsync#collapse()}, that can resume
+         * this work.
+         */
+        protected static class Waiter implements Runnable {
+
+            protected volatile Thread thread = Thread.currentThread();
+
+            @Override
+            public void run() {
+                Thread t = thread;
+                if (t != null) {
+                    LockSupport.unpark(t);
+                }
+            }
+        }
+
+        protected final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
 
+        /**
+         * Wake every waiting collapser, so it checks if the work needs to be
+         * resumed.
+         */
+        protected void signalWaiters() {
+            for (Waiter waiter : waiters) {
+                waiter.run();
             }
-            if (park >= 0) {
-                cp.unparkIfSupported(park);
+        }
+
+    }
+
+    /**
+     * Stage task, that runs registered callbacks when it is done (completed or
+     * cancelled), in the thread that completed it.
+     *
+     * @param <V>
+     */
+    protected static class StageTask<V> extends FutureTask<V> {
+
+        private static final class Node {
+
+            final Runnable action;
+            final Node next;
+
+            Node(Runnable action, Node next) {
+                this.action = action;
+                this.next = next;
+            }
+        }
+
+        private static final Node DONE = new Node(null, null);
+
+        private final AtomicReference<Node> callbacks = new AtomicReference<>();
+
+        /**
+         * Not queued in {@link AsyncWork} until it is done, or never queued
+         * at all, so no worker may block waiting for it.
+         */
+        protected final boolean detached;
+
+        public StageTask(Callable<V> callable) {
+            this(callable, false);
+        }
+
+        public StageTask(Callable<V> callable, boolean detached) {
+            super(callable);
+            this.detached = detached;
+        }
+
+        /**
+         * Run given action when this task is done, or right now if it already
+         * is. Exceptions thrown by the action are ignored.
+         *
+         * @param action
+         */
+        public void whenDone(Runnable action) {
+            Objects.requireNonNull(action);
+            for (;;) {
+                Node head = callbacks.get();
+                if (head == DONE) {
+                    runCallback(action);
+                    return;
+                }
+                if (callbacks.compareAndSet(head, new Node(action, head))) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Complete explicitly, if not done yet.
+         *
+         * @param value
+         */
+        public void complete(V value) {
+            set(value);
+        }
+
+        @Override
+        protected void done() {
+            Node head = callbacks.getAndSet(DONE);
+            Node ordered = null;// registration order
+            for (Node node = head; node != null; node = node.next) {
+                ordered = new Node(node.action, ordered);
+            }
+            for (Node node = ordered; node != null; node = node.next) {
+                runCallback(node.action);
             }
         }
 
+        private static void runCallback(Runnable action) {
+            try {
+                action.run();
+            } catch (Throwable ignored) {
+                // callbacks must not break the worker, that completed the stage
+                if (DEBUG) {
+                    System.out.println(thread() + " Callback failed:" + ignored);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stage completed explicitly, by a callback, never queued in
+     * {@link AsyncWork}, so stages chained on it are submitted only after it
+     * completes, instead of blocking a worker while waiting.
+     *
+     * @param <V>
+     */
+    protected static class Promise<V> extends StageTask<V> {
+
+        private static final Callable NEVER_RUN = () -> {
+            throw new IllegalStateException("Promise stage must be completed explicitly");
+        };
+
+        public Promise() {
+            super((Callable<V>) NEVER_RUN, true);
+        }
+
+        @Override
+        public void run() {
+            // completed only explicitly
+        }
     }
 
     @Override
@@ -157,41 +386,7 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
         }
         try {
             if (submitter.limited()) { // resolve or mitigate nesting deadlocks
-
-                while (complete == null) {
-                    try {
-                        complete = base.get(1000, TimeUnit.MILLISECONDS); // periodic probe, maybe the task is not even executing
-                    } catch (TimeoutException ex) {
-                        if (async.cp != null && async.cp.cancelled()) {
-                            return complete = async.cp.getError();
-                        }
-
-                        boolean locked = false;
-                        boolean resumeWork = false;
-                        try {
-
-                            async.lock.lockInterruptibly();
-                            locked = true; // lock only for state checking
-                            //we can assume base is not done
-                            resumeWork = (async.state == AsyncWork.INACTIVE) && !async.workQueue.isEmpty();
-                            //the thread responsible for this AsyncWork died and there is more work
-                            if (resumeWork) {
-                                async.state = AsyncWork.SUBMITTED;
-                            }
-
-                        } finally {
-                            if (locked) {
-                                async.lock.unlock();
-                            }
-                        }
-                        if (resumeWork) {
-                            if (DEBUG) {
-                                System.out.println(thread() + " Resuming work in waiting thread");
-                            }
-                            async.run();
-                        }
-                    }
-                }
+                complete = awaitResuming();
             } else {// we are likely in a virtual thread environment, just let it block 
                 complete = base.get();
             }
@@ -217,17 +412,71 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
         return complete;
     }
 
+    /**
+     * Wait for the stage, woken up by its completion, by cancellation, or by
+     * the worker leaving the work, in which case the work is resumed in this
+     * thread, so nested waiting can not starve the limited threads.
+     *
+     * @return
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    protected SafeOpt<T> awaitResuming() throws InterruptedException, ExecutionException {
+        if (!(base instanceof StageTask) || base.isDone()) {
+            return base.get();
+        }
+        AsyncWork.Waiter waiter = new AsyncWork.Waiter();
+        ((StageTask<SafeOpt<T>>) base).whenDone(waiter);
+        async.waiters.add(waiter);
+        if (async.cp != null) {
+            async.cp.addCancelListener(waiter);
+        }
+        try {
+            while (!base.isDone()) {
+                if (async.cp != null && async.cp.cancelled()) {
+                    return async.cp.getError();
+                }
+                //the thread responsible for this AsyncWork left and there is more work
+                if (async.tryResume()) {
+                    if (DEBUG) {
+                        System.out.println(thread() + " Resuming work in waiting thread");
+                    }
+                    async.run();
+                    continue;
+                }
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiter.thread = null;
+            async.waiters.remove(waiter);
+            if (async.cp != null) {
+                async.cp.removeCancelListener(waiter);
+            }
+        }
+        return base.get();
+    }
+
     @Override
     public <O> SafeOpt<O> functor(Function<SafeOpt<T>, SafeOpt<O>> func) {
         Objects.requireNonNull(func, "Functor is null");
+        if (complete == null && base instanceof StageTask && ((StageTask) base).detached && !base.isDone()) {
+            // submit only after completion, nothing to run until then, so this stage is detached too
+            // completed in a foreign thread, so never run there
+            StageTask<SafeOpt<O>> futureTask = new StageTask<>(() -> applyInTime(func), true);
+            ((StageTask<SafeOpt<T>>) base).whenDone(() -> async.addMaybeSubmitDetached(submitter, (FutureTask) futureTask));
+            return new SafeOptAsync<>(submitter, futureTask, async);
+        }
         if (submitter.continueInPlace(async)) {
             if (DEBUG) {
                 System.out.println(thread() + " in place");
             }
-            return new SafeOptAsync<>(submitter, func.apply(collapse()), async);
+            return new SafeOptAsync<>(submitter, applyInTime(func), async);
         }
 
-        FutureTask<SafeOpt<O>> futureTask = new FutureTask<>(() -> func.apply(collapse()));
+        FutureTask<SafeOpt<O>> futureTask = new StageTask<>(() -> applyInTime(func));
         boolean addMaybeSubmit = async.addMaybeSubmit(submitter, (FutureTask) futureTask);
         if (DEBUG) {
             System.out.println(thread() + " submitted " + addMaybeSubmit);
@@ -240,10 +489,253 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
     public <O> SafeOpt<O> functorCheap(Function<SafeOpt<T>, SafeOpt<O>> func) {
         Objects.requireNonNull(func, "Functor is null");
         if (base.isDone() || complete != null) {
-            return new SafeOptAsync<>(submitter, func.apply(collapse()), async);
+            return new SafeOptAsync<>(submitter, applyInTime(func), async);
+        }
+        return functor(func);
+    }
+
+    /**
+     * Apply given function to the result of this stage, if the deadline of the
+     * chain did not pass, otherwise the result is {@link #ERR_DEADLINE}. Unless
+     * this stage missed the deadline itself, then the function gets that
+     * error, so fallbacks like {@code orGet} can still recover.
+     */
+    protected <O> SafeOpt<O> applyInTime(Function<SafeOpt<T>, SafeOpt<O>> func) {
+        SafeOpt<T> result = collapse();
+        Deadline limit = async.deadline;
+        if (limit != null && limit.passed() && result.rawException() != ERR_DEADLINE) {
+            return SafeOpt.error(ERR_DEADLINE);
+        }
+        return func.apply(result);
+    }
+
+    /**
+     * Run given action with the result of this stage when it completes,
+     * without blocking. Runs right away in the calling thread if the stage is
+     * already complete, otherwise in the thread that completes the stage,
+     * which can be a foreign thread, like the completion thread of a
+     * {@code CompletionStage} or an expired timeout, so the action should be
+     * cheap and must not block. Exceptions thrown by the action are ignored.
+     *
+     * @param action
+     * @return this stage
+     */
+    public SafeOptAsync<T> onComplete(Consumer<? super SafeOpt<T>> action) {
+        Objects.requireNonNull(action, "Null action");
+        if (complete == null && base instanceof StageTask && !base.isDone()) {
+            ((StageTask<SafeOpt<T>>) base).whenDone(() -> action.accept(collapse()));
         } else {
-            return functor(func);
+            action.accept(collapse());
+        }
+        return this;
+    }
+
+    /**
+     * Like {@link #onComplete(java.util.function.Consumer)}, but returns a
+     * stage, that completes after the action has run, with the same result. If
+     * the action throws and this stage has no error, the new stage completes
+     * with that exception.
+     *
+     * @param action
+     * @return
+     */
+    public SafeOptAsync<T> whenComplete(UncheckedConsumer<? super SafeOpt<T>> action) {
+        Objects.requireNonNull(action, "Null action");
+        Promise<SafeOpt<T>> promise = new Promise<>();
+        onComplete(result -> {
+            SafeOpt<T> outcome = result;
+            try {
+                action.acceptUnchecked(result);
+            } catch (Throwable t) {
+                if (!result.hasError()) {
+                    outcome = SafeOpt.error(NestedException.unwrap(t));
+                }
+            }
+            promise.complete(outcome);
+        });
+        return new SafeOptAsync<>(submitter, promise, async);
+    }
+
+    /**
+     * Error of a stage, that did not complete before its deadline.
+     */
+    public static final PassableException ERR_DEADLINE = new PassableException(TimeoutException.class, "Deadline exceeded");
+
+    /**
+     * Deadline of a chain, shared by chained stages through their
+     * {@link AsyncWork}, served by a single timeout. Stages check it when they
+     * start, on expiry the stage it waits for and the running stage complete
+     * with {@link #ERR_DEADLINE}.
+     */
+    protected static final class Deadline implements Runnable {
+
+        protected final long at;
+        protected final boolean cancel;
+        protected final CancelPolicy cp;
+        /**
+         * Stage, that the deadline was set on, cancelled on expiry if there is
+         * no {@link CancelPolicy}.
+         */
+        protected final Future<?> source;
+        /**
+         * Completed with the result of the source, or on expiry.
+         */
+        protected final Promise<SafeOpt> head;
+        /**
+         * Stage currently run by the worker of the chain.
+         */
+        protected volatile FutureTask<SafeOpt> running;
+
+        protected Deadline(long at, boolean cancel, CancelPolicy cp, Future<?> source, Promise<SafeOpt> head) {
+            this.at = at;
+            this.cancel = cancel;
+            this.cp = cp;
+            this.source = source;
+            this.head = head;
+        }
+
+        protected boolean passed() {
+            return System.nanoTime() - at >= 0;
+        }
+
+        @Override
+        public void run() {
+            // before the head, so stages started by its completion can still recover
+            FutureTask<SafeOpt> late = running;
+            if (cancel) {
+                if (cp != null) {
+                    cp.cancel(ERR_DEADLINE);
+                } else if (source != null && head != null && !head.isDone()) {
+                    source.cancel(false);
+                }
+            }
+            if (late instanceof StageTask) {
+                ((StageTask<SafeOpt>) late).complete(SafeOpt.error(ERR_DEADLINE));
+            }
+            if (head != null) {
+                head.complete(SafeOpt.error(ERR_DEADLINE));
+            }
+        }
+    }
+
+    /**
+     * Stage, that completes with {@link #ERR_DEADLINE} error, if this stage
+     * does not complete within given time.
+     *
+     * @see #withTimeout(java.time.Duration, boolean)
+     * @param timeout
+     * @return
+     */
+    public SafeOptAsync<T> withTimeout(Duration timeout) {
+        return withTimeout(timeout, false);
+    }
+
+    /**
+     * Stage, that completes with {@link #ERR_DEADLINE} error, if this stage
+     * does not complete within given time. The deadline carries over to
+     * stages chained on the returned one: stages, that start after it, get
+     * the error instead of running, and the stage running when it passes
+     * completes with the error. Stages queued behind that stage start only
+     * after it returns, like any work of a chain. If this stage already has
+     * an earlier deadline, that one is kept. Served by a single timeout of
+     * {@link TimerWheel#shared()}, no thread waits for it.
+     *
+     * @param timeout
+     * @param cancel also cancel the late work, through the {@link CancelPolicy}
+     * of the chain if it has one, otherwise just the late stage
+     * @return
+     */
+    public SafeOptAsync<T> withTimeout(Duration timeout, boolean cancel) {
+        Objects.requireNonNull(timeout, "Null timeout");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Negative timeout");
+        }
+        long nanos;
+        try {
+            nanos = timeout.toNanos();
+        } catch (ArithmeticException ex) {
+            nanos = Long.MAX_VALUE / 2;
+        }
+        long at = System.nanoTime() + Math.min(nanos, Long.MAX_VALUE / 2);
+        Deadline current = async.deadline;
+        if (current != null && current.at - at <= 0) {
+            if (current.cancel || !cancel) {// already covered
+                return this;
+            }
+            at = current.at;
         }
+        if (complete != null || base.isDone() || !(base instanceof StageTask)) {
+            Deadline limit = new Deadline(at, cancel, async.cp, null, null);
+            TimerWheel.shared().schedule(at, limit);
+            AsyncWork work = new AsyncWork(null, async.cp, limit);
+            return complete != null ? new SafeOptAsync<>(submitter, complete, work) : new SafeOptAsync<>(submitter, base, work);
+        }
+        Promise<SafeOpt> head = new Promise<>();
+        Deadline limit = new Deadline(at, cancel, async.cp, base, head);
+        TimerWheel.shared().schedule(at, limit);
+        onComplete(head::complete);
+        // own work, so chained stages are not queued behind late work of this chain
+        return new SafeOptAsync<>(submitter, (Future) head, new AsyncWork(null, async.cp, limit));
+    }
+
+    /**
+     *
+     * @return time left until the deadline of this stage, if it has one
+     */
+    public Optional<Duration> getTimeLeft() {
+        Deadline limit = async.deadline;
+        if (limit == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(Math.max(0, limit.at - System.nanoTime())));
+    }
+
+    /**
+     * {@code CompletableFuture} completed with the result of this stage,
+     * without blocking any thread. Empty result completes with {@code null}.
+     *
+     * @return
+     */
+    public CompletableFuture<T> toCompletableFuture() {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        onComplete(result -> {
+            Throwable error = result.rawException();
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result.rawValue());
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stage completed by given {@code CompletionStage} callback, no thread
+     * waits for it. Chained stages are submitted to given submitter after it
+     * completes, never run in the completion thread, unless the submitter is
+     * {@link Submitter#IN_PLACE}. {@code null} result is empty,
+     * {@link CompletionException} is unwrapped.
+     *
+     * @param <T>
+     * @param submitter
+     * @param stage
+     * @return
+     */
+    public static <T> SafeOptAsync<T> ofCompletionStage(Submitter submitter, CompletionStage<? extends T> stage) {
+        Objects.requireNonNull(submitter, "Null submitter");
+        Objects.requireNonNull(stage, "Null stage");
+        Promise<SafeOpt<T>> promise = new Promise<>();
+        stage.whenComplete((value, error) -> {
+            if (error == null) {
+                promise.complete(SafeOpt.ofNullable(value));
+            } else {
+                if (error instanceof CompletionException && error.getCause() != null) {
+                    error = error.getCause();
+                }
+                promise.complete(SafeOpt.error(NestedException.unwrap(error)));
+            }
+        });
+        return new SafeOptAsync<>(submitter, promise, new AsyncWork(null, null));
     }
 
     protected final Future<SafeOpt<T>> base;
@@ -298,4 +790,115 @@ public class SafeOptAsync<T> extends SafeOptBase<T> implements SafeOptCollapse<T
         }
     }
 
+    /**
+     * Marks a chunk, that stopped because other chunk failed.
+     */
+    private static final PassableException ABORTED_CHUNK = new PassableException("Aborted chunk");
+
+    /**
+     * Map every item in {@linkplain Submitter#DEFAULT_POOL}, in chunks.
+     *
+     * @see #mapAllAsync(Submitter, List, UncheckedFunction)
+     * @param <T>
+     * @param <R>
+     * @param items
+     * @param mapper
+     * @return
+     */
+    public static <T, R> SafeOptAsync<List<R>> mapAllAsync(List<? extends T> items, UncheckedFunction<? super T, ? extends R> mapper) {
+        return mapAllAsync(Submitter.DEFAULT_POOL, items, mapper);
+    }
+
+    /**
+     * Map every item asynchronously, like
+     * {@link SafeOpt#traverse(java.util.Collection, UncheckedFunction)}. Items
+     * are split into at most {@link Submitter#parallelism()} chunks, every
+     * chunk is mapped as a single task, and results are merged in input order,
+     * instead of creating a {@code SafeOptAsync} per item. After any chunk
+     * fails (exception or {@code null} result), other chunks stop early, so
+     * the error is from the earliest failed chunk, not necessarily the first
+     * failing item.
+     *
+     * @param <T>
+     * @param <R>
+     * @param submitter
+     * @param items
+     * @param mapper
+     * @return {@code SafeOptAsync} of all mapped values, or error, or empty result
+     */
+    public static <T, R> SafeOptAsync<List<R>> mapAllAsync(Submitter submitter, List<? extends T> items, UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(submitter, "Null submitter");
+        Objects.requireNonNull(items, "Null list");
+        Objects.requireNonNull(mapper, "Null map function");
+        int size = items.size();
+        if (size == 0) {
+            return new SafeOptAsync<>(submitter, SafeOpt.of(Collections.emptyList()));
+        }
+        List<? extends T> list = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        int chunks = Math.min(size, submitter.parallelism());
+        AtomicBoolean failed = new AtomicBoolean();
+        List<SafeOptAsync<List<R>>> parts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            List<? extends T> chunk = list.subList((int) ((long) size * i / chunks), (int) ((long) size * (i + 1) / chunks));
+            SafeOptAsync<List<? extends T>> start = new SafeOptAsync<>(submitter, SafeOpt.of(chunk));
+            parts.add((SafeOptAsync) start.functor(c -> mapChunk(chunk, mapper, failed)));
+        }
+        if (chunks == 1) {
+            return parts.get(0);
+        }
+        // merged by the thread, that completes the last chunk, so no worker waits for other chunks
+        Promise<SafeOpt<List<R>>> merged = new Promise<>();
+        AtomicInteger remaining = new AtomicInteger(chunks);
+        for (SafeOptAsync<List<R>> part : parts) {
+            part.onComplete(r -> {
+                if (remaining.decrementAndGet() == 0) {
+                    merged.complete(mergeChunks(parts, size));
+                }
+            });
+        }
+        return new SafeOptAsync<>(submitter, merged, new AsyncWork(null, null));
+    }
+
+    private static <T, R> SafeOpt<List<R>> mapChunk(List<? extends T> chunk, UncheckedFunction<? super T, ? extends R> mapper, AtomicBoolean failed) {
+        ArrayList<R> result = new ArrayList<>(chunk.size());
+        try {
+            for (T item : chunk) {
+                if (failed.get()) {
+                    return SafeOpt.error(ABORTED_CHUNK);
+                }
+                R mapped = mapper.applyUnchecked(item);
+                if (mapped == null) {
+                    failed.set(true);
+                    return SafeOpt.empty();
+                }
+                result.add(mapped);
+            }
+        } catch (Throwable t) {
+            failed.set(true);
+            return SafeOpt.error(NestedException.unwrap(t));
+        }
+        return SafeOpt.of(result);
+    }
+
+    private static <R> SafeOpt<List<R>> mergeChunks(List<? extends SafeOpt<List<R>>> parts, int size) {
+        ArrayList<R> result = new ArrayList<>(size);
+        boolean aborted = false;
+        for (SafeOpt<List<R>> part : parts) {
+            List<R> values = part.rawValue();
+            if (values != null) {
+                result.addAll(values);
+                continue;
+            }
+            Throwable error = part.rawException();
+            if (error != ABORTED_CHUNK) {
+                return error == null ? SafeOpt.empty() : SafeOpt.error(error);
+            }
+            aborted = true;
+        }
+        if (aborted) { // should not happen, abort means other chunk failed
+            return SafeOpt.error(new IllegalStateException("Chunk aborted without failure"));
+        }
+        return SafeOpt.of(result);
+    }
+
 }
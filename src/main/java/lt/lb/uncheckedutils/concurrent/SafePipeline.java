@@ -0,0 +1,409 @@
+package lt.lb.uncheckedutils.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lt.lb.uncheckedutils.NestedException;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.func.UncheckedConsumer;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * Multi-stage processing of unbounded input. Every stage has a bounded buffer
+ * and is drained by at most a configured amount of workers on its own
+ * {@link Submitter}. A full buffer stops the upstream workers from taking more
+ * input (or blocks the caller of {@link #put(java.lang.Object)}), so memory use
+ * stays bounded. Workers never wait for a full buffer, they hold the result
+ * and leave, the downstream resumes them once it takes an item, so stages can
+ * share a small executor. Items that fail go to the dead letter sink as
+ * {@code SafeOpt} errors and processing continues, {@code null} results are
+ * dropped.
+ *
+ * Workers are started only while there is work, so an idle pipeline holds no
+ * threads. Item order is kept only if every stage has a single worker.
+ *
+ * @author laim0nas100
+ * @param <I> input type
+ */
+public class SafePipeline<I> {
+
+    /**
+     * Receives items that failed at any stage.
+     */
+    @FunctionalInterface
+    public static interface DeadLetter {
+
+        /**
+         *
+         * @param item input of the failed stage (or the sink)
+         * @param error {@code SafeOpt} with the captured error
+         */
+        public void accept(Object item, SafeOpt<?> error);
+    }
+
+    /**
+     * Pipeline description, every call to
+     * {@link #stage(Submitter, int, int, UncheckedFunction)} appends a stage.
+     *
+     * @param <I> input type
+     * @param <O> output type of the last stage
+     */
+    public static class Builder<I, O> {
+
+        protected final DeadLetter deadLetter;
+        protected final List<StageSpec> stages;
+
+        protected Builder(DeadLetter deadLetter, List<StageSpec> stages) {
+            this.deadLetter = deadLetter;
+            this.stages = stages;
+        }
+
+        /**
+         * Single worker stage, keeps item order.
+         *
+         * @param <R>
+         * @param submitter
+         * @param capacity
+         * @param func
+         * @return
+         */
+        public <R> Builder<I, R> stage(Submitter submitter, int capacity, UncheckedFunction<? super O, ? extends R> func) {
+            return stage(submitter, capacity, 1, func);
+        }
+
+        /**
+         *
+         * @param <R>
+         * @param submitter runs the workers of this stage
+         * @param capacity buffer size of this stage
+         * @param workers maximum amount of concurrent workers of this stage
+         * @param func
+         * @return new builder with the stage appended
+         */
+        public <R> Builder<I, R> stage(Submitter submitter, int capacity, int workers, UncheckedFunction<? super O, ? extends R> func) {
+            Objects.requireNonNull(submitter, "Null submitter");
+            Objects.requireNonNull(func, "Null stage function");
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+            }
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Workers must be positive, got " + workers);
+            }
+            List<StageSpec> list = new ArrayList<>(stages);
+            list.add(new StageSpec(submitter, capacity, workers, func));
+            return new Builder<>(deadLetter, list);
+        }
+
+        /**
+         * Start the pipeline. Sink is called by the workers of the last stage,
+         * so it must be thread-safe if that stage has more than one worker.
+         *
+         * @param sink
+         * @return
+         */
+        public SafePipeline<I> build(UncheckedConsumer<? super O> sink) {
+            Objects.requireNonNull(sink, "Null sink");
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline has no stages");
+            }
+            return new SafePipeline<>(this, sink);
+        }
+    }
+
+    protected static class StageSpec {
+
+        final Submitter submitter;
+        final int capacity;
+        final int workers;
+        final UncheckedFunction func;
+
+        StageSpec(Submitter submitter, int capacity, int workers, UncheckedFunction func) {
+            this.submitter = submitter;
+            this.capacity = capacity;
+            this.workers = workers;
+            this.func = func;
+        }
+    }
+
+    /**
+     * Start describing a pipeline.
+     *
+     * @param <T> input type
+     * @param deadLetter
+     * @return
+     */
+    public static <T> Builder<T, T> create(DeadLetter deadLetter) {
+        Objects.requireNonNull(deadLetter, "Null dead letter sink");
+        return new Builder<>(deadLetter, new ArrayList<>());
+    }
+
+    protected class Stage {
+
+        protected final StageSpec spec;
+        protected final BlockingQueue<Object> buffer;
+        protected final AtomicInteger active = new AtomicInteger();
+        /**
+         * Results, that did not fit in the buffer of the next stage, at most
+         * one per worker.
+         */
+        protected final Queue<Object> held = new ConcurrentLinkedQueue<>();
+        protected Stage prev;
+        protected Stage next;
+
+        protected Stage(StageSpec spec) {
+            this.spec = spec;
+            this.buffer = new ArrayBlockingQueue<>(spec.capacity);
+        }
+
+        protected void put(Object item) throws InterruptedException {
+            buffer.put(item);
+            maybeStart();
+        }
+
+        protected boolean offer(Object item) {
+            if (!buffer.offer(item)) {
+                return false;
+            }
+            maybeStart();
+            return true;
+        }
+
+        /**
+         * Start a worker, if there is work and a free worker slot.
+         */
+        protected void maybeStart() {
+            for (;;) {
+                int current = active.get();
+                if (current >= spec.workers || !hasWork()) {
+                    return;
+                }
+                if (active.compareAndSet(current, current + 1)) {
+                    new SafeOptAsync<>(spec.submitter, SafeOpt.of(this)).functor(s -> {
+                        drain();
+                        return SafeOpt.empty();
+                    });
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Held results go first, new input is only taken after they fit
+         * downstream.
+         */
+        protected boolean hasWork() {
+            if (held.isEmpty()) {
+                return !buffer.isEmpty();
+            }
+            return next.buffer.remainingCapacity() > 0;
+        }
+
+        /**
+         * Move held results downstream.
+         *
+         * @return {@code false} if downstream buffer is full
+         */
+        protected boolean flushHeld() {
+            Object result;
+            while ((result = held.poll()) != null) {
+                if (!next.offer(result)) {
+                    held.add(result);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        protected void drain() {
+            try {
+                Object item;
+                while (flushHeld() && (item = buffer.poll()) != null) {
+                    if (prev != null) {
+                        prev.maybeStart();// buffer has room, upstream might be holding a result
+                    }
+                    if (!process(item)) {
+                        break;
+                    }
+                }
+            } finally {
+                active.decrementAndGet();
+            }
+            maybeStart();// work might have been added after last poll, or downstream took an item
+        }
+
+        /**
+         *
+         * @return {@code false} if result is held, because downstream buffer is
+         * full
+         */
+        protected boolean process(Object item) {
+            Object result;
+            try {
+                result = spec.func.applyUnchecked(item);
+            } catch (Throwable t) {
+                failed(item, t);
+                return true;
+            }
+            if (result == null) {
+                done();
+                return true;
+            }
+            if (next != null) {
+                if (next.offer(result)) {
+                    return true;
+                }
+                held.add(result);
+                return false;
+            }
+            try {
+                sink.acceptUnchecked(result);
+            } catch (Throwable t) {
+                failed(result, t);
+                return true;
+            }
+            done();
+            return true;
+        }
+    }
+
+    protected final DeadLetter deadLetter;
+    protected final UncheckedConsumer sink;
+    protected final Stage head;
+    protected final AtomicLong pending = new AtomicLong();
+    protected final CountDownLatch completion = new CountDownLatch(1);
+    protected volatile boolean closed;
+
+    protected SafePipeline(Builder<I, ?> builder, UncheckedConsumer sink) {
+        this.deadLetter = builder.deadLetter;
+        this.sink = sink;
+        Stage first = null;
+        Stage last = null;
+        for (StageSpec spec : builder.stages) {
+            Stage stage = new Stage(spec);
+            if (first == null) {
+                first = stage;
+            } else {
+                last.next = stage;
+                stage.prev = last;
+            }
+            last = stage;
+        }
+        this.head = first;
+    }
+
+    protected void failed(Object item, Throwable error) {
+        try {
+            deadLetter.accept(item, SafeOpt.error(NestedException.unwrap(error)));
+        } catch (Throwable ignored) {
+            // dead letter sink must not stop the pipeline
+        } finally {
+            done();
+        }
+    }
+
+    protected void done() {
+        if (pending.decrementAndGet() == 0 && closed) {
+            completion.countDown();
+        }
+    }
+
+    private void accepting(Object item) {
+        Objects.requireNonNull(item, "Null item");
+        pending.incrementAndGet();// before the check, so close does not complete with this item
+        if (closed) {
+            done();
+            throw new IllegalStateException("Pipeline is closed");
+        }
+    }
+
+    /**
+     * Add an item, waiting while the first stage buffer is full.
+     *
+     * @param item
+     * @throws InterruptedException
+     */
+    public void put(I item) throws InterruptedException {
+        accepting(item);
+        try {
+            head.put(item);
+        } catch (InterruptedException ex) {
+            done();
+            throw ex;
+        }
+    }
+
+    /**
+     * Add an item if the first stage buffer is not full.
+     *
+     * @param item
+     * @return {@code false} if buffer is full
+     */
+    public boolean offer(I item) {
+        accepting(item);
+        if (head.offer(item)) {
+            return true;
+        }
+        done();
+        return false;
+    }
+
+    /**
+     * Stop accepting new items, already accepted items are still processed.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (pending.get() == 0) {
+            completion.countDown();
+        }
+    }
+
+    /**
+     *
+     * @return {@code true} if pipeline is closed and every accepted item is
+     * processed
+     */
+    public boolean isCompleted() {
+        return completion.getCount() == 0;
+    }
+
+    /**
+     * Wait until pipeline is closed and every accepted item is processed.
+     *
+     * @throws InterruptedException
+     */
+    public void awaitCompletion() throws InterruptedException {
+        completion.await();
+    }
+
+    /**
+     * Wait until pipeline is closed and every accepted item is processed.
+     *
+     * @param time
+     * @param unit
+     * @return {@code false} if timed out
+     * @throws InterruptedException
+     */
+    public boolean awaitCompletion(long time, TimeUnit unit) throws InterruptedException {
+        return completion.await(time, unit);
+    }
+
+    /**
+     *
+     * @return amount of accepted, but not yet processed items
+     */
+    public long getPending() {
+        return pending.get();
+    }
+
+}
@@ -26,10 +26,32 @@ public abstract class Submitter {
 
     public abstract void submit(SafeOptAsync.AsyncWork task);
 
+    /**
+     * Submit work resumed by a callback, in a foreign thread (completion of a
+     * {@code CompletionStage}, expired timeout), that must not run the work.
+     * Never runs in the calling thread, ignoring nesting and thread limits,
+     * except for {@link #IN_PLACE}, that has no threads of its own.
+     *
+     * @param task
+     */
+    public void submitDetached(SafeOptAsync.AsyncWork task) {
+        submit(task);
+    }
+
     public boolean limited() {
         return false;
     }
 
+    /**
+     * How many tasks are expected to run at once. Used to split bulk work into
+     * chunks.
+     *
+     * @return at least 1
+     */
+    public int parallelism() {
+        return Checked.REASONABLE_PARALLELISM;
+    }
+
     private static boolean insideCheck(ArrayDeque<SafeOptAsync.AsyncWork> stack, int nesting, SafeOptAsync.AsyncWork task) {
         if (stack == null) {
             return false;
@@ -91,6 +113,11 @@ public abstract class Submitter {
         public boolean continueInPlace(SafeOptAsync.AsyncWork task) {
             return true;
         }
+
+        @Override
+        public int parallelism() {
+            return 1;
+        }
     };
 
     public static final Submitter DEFAULT_POOL = createDefault();
@@ -190,6 +217,11 @@ public abstract class Submitter {
             }).start();
         }
 
+        @Override
+        public void submitDetached(SafeOptAsync.AsyncWork task) {
+            startThread(null, Objects.requireNonNull(task));
+        }
+
     }
 
     public static class LimitedSubmitter extends Submitter {
@@ -224,6 +256,11 @@ public abstract class Submitter {
             return true;
         }
 
+        @Override
+        public int parallelism() {
+            return Math.max(1, parallelism);
+        }
+
         @Override
         public void submit(final SafeOptAsync.AsyncWork task) {
             Objects.requireNonNull(task);
@@ -271,6 +308,23 @@ public abstract class Submitter {
             }
 
         }
+
+        @Override
+        public void submitDetached(final SafeOptAsync.AsyncWork task) {
+            Objects.requireNonNull(task);
+            // may go over the limit, then threads waiting for this work take it over
+            freeThreads.decrementAndGet();
+            service.submit(() -> {
+                ArrayDeque<SafeOptAsync.AsyncWork> local = inside.get();
+                try {
+                    local.addLast(task);
+                    task.run();
+                } finally {
+                    freeThreads.incrementAndGet();
+                    local.removeLastOccurrence(task);
+                }
+            });
+        }
     };
 
     public static class UnlimitedNestingSubmitter extends Submitter {
@@ -344,6 +398,11 @@ public abstract class Submitter {
             });
         }
 
+        @Override
+        public void submitDetached(SafeOptAsync.AsyncWork task) {
+            startThread(null, Objects.requireNonNull(task));
+        }
+
     }
 
 }
@@ -46,6 +46,11 @@ public class ThreadLocalParkSpace<T> implements Iterable<T> {
 
         private final AtomicReference<Thread> thread;
         private volatile T item;
+        /**
+         * Parked thread was interrupted by {@link #interruptParked()}, only
+         * changed while holding this item.
+         */
+        private boolean interrupted;
 
         public Item() {
             thread = new AtomicReference(null);
@@ -100,7 +105,7 @@ public class ThreadLocalParkSpace<T> implements Iterable<T> {
             Item<T> container = array.items[index];
 
             Thread refThread = container.thread.get();
-            if (refThread != currentThread && !container.isAlive() && container.thread.compareAndSet(refThread, currentThread)) {//replaced
+            if (refThread != currentThread && !container.isAlive() && replace(container, refThread, currentThread)) {//replaced
                 if (DEBUG) {
                     if (refThread == null) {
                         System.out.println(thread() + " Parked new:" + index);
@@ -237,6 +242,34 @@ public class ThreadLocalParkSpace<T> implements Iterable<T> {
 
     }
 
+    private static boolean replace(Item container, Thread dead, Thread current) {
+        synchronized (container) {// interrupt of the dead thread must not stick to the new one
+            if (!container.thread.compareAndSet(dead, current)) {
+                return false;
+            }
+            container.interrupted = false;
+            return true;
+        }
+    }
+
+    /**
+     * Release the item, clear the interrupt, that reached this thread while
+     * it was parked, so it does not leak into whatever this thread runs next.
+     */
+    private static boolean release(Item container, Thread current) {
+        synchronized (container) {
+            if (!container.thread.compareAndSet(current, null)) {
+                return false;
+            }
+            container.item = null;
+            if (container.interrupted) {
+                container.interrupted = false;
+                Thread.interrupted();
+            }
+            return true;
+        }
+    }
+
     public boolean unpark(int index) {
         SpaceInfo space = reserved.get();
         if (index < 0) {
@@ -246,8 +279,7 @@ public class ThreadLocalParkSpace<T> implements Iterable<T> {
         }
         Thread t = Thread.currentThread();
         Item container = array.items[index];
-        if (space.count == 1 && container.thread.compareAndSet(t, null)) {
-            container.item = null;
+        if (space.count == 1 && release(container, t)) {
             space.count = 0;
             if (DEBUG) {
                 System.out.println(thread() + " unparked completely");
@@ -278,6 +310,30 @@ public class ThreadLocalParkSpace<T> implements Iterable<T> {
 
     }
 
+    /**
+     * Interrupt every thread, that is still parked. Threads, that already
+     * unparked, are not interrupted.
+     */
+    public void interruptParked() {
+        lock.readLock().lock();
+        try {
+            for (Item<T> container : array.items) {
+                synchronized (container) {
+                    Thread t = container.thread.get();
+                    if (t != null && t.isAlive()) {
+                        container.interrupted = true;
+                        t.interrupt();
+                        if (DEBUG) {
+                            System.out.println("Interrupt" + t.getName() + t.getId());
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     public List<Thread> getAliveThreads() {
         lock.readLock().lock();
         try {
@@ -0,0 +1,263 @@
+package lt.lb.uncheckedutils.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel, many timeouts served by a single daemon thread. Timeouts
+ * expire at tick granularity, never before their deadline. Scheduling and
+ * cancelling does not lock, the thread sleeps while there are no pending
+ * timeouts.
+ *
+ * Expired actions are handed to an executor, the timer thread never runs them,
+ * so a slow action does not delay other timeouts. Cancelled timeouts are
+ * dropped at the latest when the wheel becomes idle.
+ *
+ * @author laim0nas100
+ */
+public class TimerWheel {
+
+    public static class Timeout {
+
+        public static final int PENDING = 0;
+        public static final int CANCELLED = 1;
+        public static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        protected final TimerWheel wheel;
+        protected final long deadline;
+        protected volatile Runnable action;
+        protected volatile int state = PENDING;
+        /**
+         * Tick at which this timeout expires, assigned by the timer thread.
+         */
+        protected long tick;
+
+        protected Timeout(TimerWheel wheel, long deadline, Runnable action) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.action = action;
+        }
+
+        /**
+         *
+         * @return {@code true} if this call cancelled the timeout, so the
+         * action will never run
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            action = null;// do not hold on to it until the bucket is visited
+            wheel.pending.decrementAndGet();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /**
+         *
+         * @return deadline in {@link System#nanoTime()} terms
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        protected void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            wheel.pending.decrementAndGet();
+            Runnable run = action;
+            action = null;
+            try {
+                wheel.executor.execute(run);
+            } catch (Throwable ignored) {
+                // must not kill the timer thread
+                if (SafeOptAsync.DEBUG) {
+                    System.out.println(ThreadLocalParkSpace.thread() + " Timeout action rejected:" + ignored);
+                }
+            }
+        }
+    }
+
+    private static class Shared {
+
+        static final TimerWheel WHEEL = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 512, Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "TimerWheel-expired");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Wheel with 10ms ticks, started on first use. Expired actions run in a
+     * pool of 2 daemon threads, so they should only hand work over.
+     *
+     * @return
+     */
+    public static TimerWheel shared() {
+        return Shared.WHEEL;
+    }
+
+    protected final long tickNanos;
+    protected final long start;
+    protected final List<Timeout>[] buckets;
+    protected final int mask;
+    protected final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    protected final AtomicInteger pending = new AtomicInteger();
+    protected final Thread thread;
+    protected final Executor executor;
+    /**
+     * Last processed tick, only used by the timer thread.
+     */
+    protected long tick;
+
+    /**
+     *
+     * @param tickNanos tick duration
+     * @param wheelSize amount of buckets, rounded up to a power of 2
+     * @param executor runs expired actions
+     */
+    public TimerWheel(long tickNanos, int wheelSize, Executor executor) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive, got " + tickNanos);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Wheel size must be positive and at most 2^30, got " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.executor = Objects.requireNonNull(executor, "Null executor");
+        this.tickNanos = tickNanos;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.start = System.nanoTime();
+        this.thread = new Thread(this::work, "TimerWheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Run given action at or after given deadline, unless cancelled.
+     *
+     * @param deadline in {@link System#nanoTime()} terms
+     * @param action
+     * @return
+     */
+    public Timeout schedule(long deadline, Runnable action) {
+        Objects.requireNonNull(action, "Null action");
+        Timeout timeout = new Timeout(this, deadline, action);
+        incoming.add(timeout);
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(thread);
+        }
+        return timeout;
+    }
+
+    /**
+     *
+     * @return amount of scheduled timeouts, that are not yet expired or
+     * cancelled
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - start) / tickNanos;
+    }
+
+    protected void work() {
+        for (;;) {
+            if (pending.get() == 0) {
+                purge();
+                LockSupport.park(this);
+                // nothing was due while idle, skip the elapsed ticks
+                tick = Math.max(tick, currentTick() - 1);
+                continue;
+            }
+            long wait = start + (tick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;// woken early by a new timeout, or spuriously
+            }
+            long now = currentTick();
+            transferIncoming();
+            // catch up, but no more than one full turn
+            for (long t = Math.max(tick + 1, now - mask); t <= now; t++) {
+                expireBucket(t);
+            }
+            tick = now;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            long ticks = timeout.deadline - start;
+            // round up, so it never expires before the deadline
+            long due = ticks <= 0 ? 0 : (ticks - 1) / tickNanos + 1;
+            if (due <= tick) {
+                timeout.expire();
+                continue;
+            }
+            timeout.tick = due;
+            buckets[(int) (due & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Drop cancelled timeouts, so they are not held while idle.
+     */
+    private void purge() {
+        transferIncoming();
+        for (List<Timeout> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                bucket.removeIf(timeout -> timeout.state != Timeout.PENDING);
+            }
+        }
+    }
+
+    private void expireBucket(long t) {
+        List<Timeout> bucket = buckets[(int) (t & mask)];
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout timeout = bucket.get(i);
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            if (timeout.tick <= t) {
+                timeout.expire();
+            } else {
+                bucket.set(kept++, timeout);// later turn of the wheel
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+}
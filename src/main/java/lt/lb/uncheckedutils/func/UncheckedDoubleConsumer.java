@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleConsumer;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoubleConsumer extends DoubleConsumer {
+
+    /**
+     * {@link DoubleConsumer#accept(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @throws java.lang.Throwable
+     */
+    public void acceptUnchecked(double value) throws Throwable;
+
+    @Override
+    public default void accept(double value) throws NestedException {
+        try {
+            acceptUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
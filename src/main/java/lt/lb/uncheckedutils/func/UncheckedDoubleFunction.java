@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <R>
+ */
+@FunctionalInterface
+public interface UncheckedDoubleFunction<R> extends DoubleFunction<R> {
+
+    /**
+     * {@link DoubleFunction#apply(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public R applyUnchecked(double value) throws Throwable;
+
+    @Override
+    public default R apply(double value) throws NestedException {
+        try {
+            return applyUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
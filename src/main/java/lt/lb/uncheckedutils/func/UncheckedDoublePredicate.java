@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoublePredicate;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoublePredicate extends DoublePredicate {
+
+    /**
+     * {@link DoublePredicate#test(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public boolean testUnchecked(double value) throws Throwable;
+
+    @Override
+    public default boolean test(double value) throws NestedException {
+        try {
+            return testUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
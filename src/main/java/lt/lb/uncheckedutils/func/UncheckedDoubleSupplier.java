@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleSupplier;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoubleSupplier extends DoubleSupplier {
+
+    /**
+     * {@link DoubleSupplier#getAsDouble() }
+     * counterpart with unchecked operation.
+     *
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public double getAsDoubleUnchecked() throws Throwable;
+
+    @Override
+    public default double getAsDouble() throws NestedException {
+        try {
+            return getAsDoubleUnchecked();
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleToIntFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoubleToIntFunction extends DoubleToIntFunction {
+
+    /**
+     * {@link DoubleToIntFunction#applyAsInt(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public int applyAsIntUnchecked(double value) throws Throwable;
+
+    @Override
+    public default int applyAsInt(double value) throws NestedException {
+        try {
+            return applyAsIntUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
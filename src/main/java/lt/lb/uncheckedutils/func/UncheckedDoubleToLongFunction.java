@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleToLongFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoubleToLongFunction extends DoubleToLongFunction {
+
+    /**
+     * {@link DoubleToLongFunction#applyAsLong(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public long applyAsLongUnchecked(double value) throws Throwable;
+
+    @Override
+    public default long applyAsLong(double value) throws NestedException {
+        try {
+            return applyAsLongUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
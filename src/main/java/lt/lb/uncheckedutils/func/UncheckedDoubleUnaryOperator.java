@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.DoubleUnaryOperator;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedDoubleUnaryOperator extends DoubleUnaryOperator {
+
+    /**
+     * {@link DoubleUnaryOperator#applyAsDouble(double) }
+     * counterpart with unchecked operation.
+     *
+     * @param operand
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public double applyAsDoubleUnchecked(double operand) throws Throwable;
+
+    @Override
+    public default double applyAsDouble(double operand) throws NestedException {
+        try {
+            return applyAsDoubleUnchecked(operand);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntConsumer;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntConsumer extends IntConsumer {
+
+    /**
+     * {@link IntConsumer#accept(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @throws java.lang.Throwable
+     */
+    public void acceptUnchecked(int value) throws Throwable;
+
+    @Override
+    public default void accept(int value) throws NestedException {
+        try {
+            acceptUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <R>
+ */
+@FunctionalInterface
+public interface UncheckedIntFunction<R> extends IntFunction<R> {
+
+    /**
+     * {@link IntFunction#apply(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public R applyUnchecked(int value) throws Throwable;
+
+    @Override
+    public default R apply(int value) throws NestedException {
+        try {
+            return applyUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntPredicate;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntPredicate extends IntPredicate {
+
+    /**
+     * {@link IntPredicate#test(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public boolean testUnchecked(int value) throws Throwable;
+
+    @Override
+    public default boolean test(int value) throws NestedException {
+        try {
+            return testUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
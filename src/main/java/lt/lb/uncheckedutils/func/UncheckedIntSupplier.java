@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntSupplier;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntSupplier extends IntSupplier {
+
+    /**
+     * {@link IntSupplier#getAsInt() }
+     * counterpart with unchecked operation.
+     *
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public int getAsIntUnchecked() throws Throwable;
+
+    @Override
+    public default int getAsInt() throws NestedException {
+        try {
+            return getAsIntUnchecked();
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
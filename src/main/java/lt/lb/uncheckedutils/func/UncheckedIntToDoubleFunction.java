@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntToDoubleFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntToDoubleFunction extends IntToDoubleFunction {
+
+    /**
+     * {@link IntToDoubleFunction#applyAsDouble(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public double applyAsDoubleUnchecked(int value) throws Throwable;
+
+    @Override
+    public default double applyAsDouble(int value) throws NestedException {
+        try {
+            return applyAsDoubleUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntToLongFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntToLongFunction extends IntToLongFunction {
+
+    /**
+     * {@link IntToLongFunction#applyAsLong(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public long applyAsLongUnchecked(int value) throws Throwable;
+
+    @Override
+    public default long applyAsLong(int value) throws NestedException {
+        try {
+            return applyAsLongUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.IntUnaryOperator;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedIntUnaryOperator extends IntUnaryOperator {
+
+    /**
+     * {@link IntUnaryOperator#applyAsInt(int) }
+     * counterpart with unchecked operation.
+     *
+     * @param operand
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public int applyAsIntUnchecked(int operand) throws Throwable;
+
+    @Override
+    public default int applyAsInt(int operand) throws NestedException {
+        try {
+            return applyAsIntUnchecked(operand);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
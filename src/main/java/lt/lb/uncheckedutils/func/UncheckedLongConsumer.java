@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongConsumer;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongConsumer extends LongConsumer {
+
+    /**
+     * {@link LongConsumer#accept(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @throws java.lang.Throwable
+     */
+    public void acceptUnchecked(long value) throws Throwable;
+
+    @Override
+    public default void accept(long value) throws NestedException {
+        try {
+            acceptUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <R>
+ */
+@FunctionalInterface
+public interface UncheckedLongFunction<R> extends LongFunction<R> {
+
+    /**
+     * {@link LongFunction#apply(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public R applyUnchecked(long value) throws Throwable;
+
+    @Override
+    public default R apply(long value) throws NestedException {
+        try {
+            return applyUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
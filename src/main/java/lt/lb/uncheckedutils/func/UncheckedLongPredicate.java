@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongPredicate;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongPredicate extends LongPredicate {
+
+    /**
+     * {@link LongPredicate#test(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public boolean testUnchecked(long value) throws Throwable;
+
+    @Override
+    public default boolean test(long value) throws NestedException {
+        try {
+            return testUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongSupplier;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongSupplier extends LongSupplier {
+
+    /**
+     * {@link LongSupplier#getAsLong() }
+     * counterpart with unchecked operation.
+     *
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public long getAsLongUnchecked() throws Throwable;
+
+    @Override
+    public default long getAsLong() throws NestedException {
+        try {
+            return getAsLongUnchecked();
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongToDoubleFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongToDoubleFunction extends LongToDoubleFunction {
+
+    /**
+     * {@link LongToDoubleFunction#applyAsDouble(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public double applyAsDoubleUnchecked(long value) throws Throwable;
+
+    @Override
+    public default double applyAsDouble(long value) throws NestedException {
+        try {
+            return applyAsDoubleUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongToIntFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongToIntFunction extends LongToIntFunction {
+
+    /**
+     * {@link LongToIntFunction#applyAsInt(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public int applyAsIntUnchecked(long value) throws Throwable;
+
+    @Override
+    public default int applyAsInt(long value) throws NestedException {
+        try {
+            return applyAsIntUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.LongUnaryOperator;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ */
+@FunctionalInterface
+public interface UncheckedLongUnaryOperator extends LongUnaryOperator {
+
+    /**
+     * {@link LongUnaryOperator#applyAsLong(long) }
+     * counterpart with unchecked operation.
+     *
+     * @param operand
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public long applyAsLongUnchecked(long operand) throws Throwable;
+
+    @Override
+    public default long applyAsLong(long operand) throws NestedException {
+        try {
+            return applyAsLongUnchecked(operand);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
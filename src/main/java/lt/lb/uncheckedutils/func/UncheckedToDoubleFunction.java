@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.ToDoubleFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <P>
+ */
+@FunctionalInterface
+public interface UncheckedToDoubleFunction<P> extends ToDoubleFunction<P> {
+
+    /**
+     * {@link ToDoubleFunction#applyAsDouble(java.lang.Object) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public double applyAsDoubleUnchecked(P value) throws Throwable;
+
+    @Override
+    public default double applyAsDouble(P value) throws NestedException {
+        try {
+            return applyAsDoubleUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.ToIntFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <P>
+ */
+@FunctionalInterface
+public interface UncheckedToIntFunction<P> extends ToIntFunction<P> {
+
+    /**
+     * {@link ToIntFunction#applyAsInt(java.lang.Object) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public int applyAsIntUnchecked(P value) throws Throwable;
+
+    @Override
+    public default int applyAsInt(P value) throws NestedException {
+        try {
+            return applyAsIntUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package lt.lb.uncheckedutils.func;
+
+import java.util.function.ToLongFunction;
+import lt.lb.uncheckedutils.NestedException;
+
+/**
+ *
+ * @author laim0nas100
+ * @param <P>
+ */
+@FunctionalInterface
+public interface UncheckedToLongFunction<P> extends ToLongFunction<P> {
+
+    /**
+     * {@link ToLongFunction#applyAsLong(java.lang.Object) }
+     * counterpart with unchecked operation.
+     *
+     * @param value
+     * @return
+     * @throws java.lang.Throwable
+     */
+    public long applyAsLongUnchecked(P value) throws Throwable;
+
+    @Override
+    public default long applyAsLong(P value) throws NestedException {
+        try {
+            return applyAsLongUnchecked(value);
+        } catch (Throwable e) {
+            throw NestedException.of(e);
+        }
+    }
+
+}
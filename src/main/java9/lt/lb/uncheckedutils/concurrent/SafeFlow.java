@@ -0,0 +1,210 @@
+package lt.lb.uncheckedutils.concurrent;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lt.lb.uncheckedutils.NestedException;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.SafeOptCollapse;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
+
+/**
+ * {@link Flow.Publisher} adapters for async safe results. Java 9+ only,
+ * shipped in the multi-release jar layer.
+ *
+ * Publishers are cold, every subscriber iterates the sources again. Sources
+ * are pulled only when there is unfulfilled demand, so at most as many
+ * results are in flight (started or completed but not delivered) as were
+ * requested. Results are delivered in completion order, errors are delivered
+ * as {@code SafeOpt} values and never terminate the subscription.
+ *
+ * @author laim0nas100
+ */
+public final class SafeFlow {
+
+    private SafeFlow() {
+    }
+
+    /**
+     * Publish completions of given {@code SafeOpt} sources. Lazy and async
+     * sources are collapsed, async sources without blocking the requesting
+     * thread. Exception thrown by the iterator is published as the last
+     * element.
+     *
+     * @param <T>
+     * @param sources
+     * @return
+     */
+    public static <T> Flow.Publisher<SafeOpt<T>> ofCompletions(Iterable<? extends SafeOpt<? extends T>> sources) {
+        Objects.requireNonNull(sources, "Null sources");
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "Null subscriber");
+            CompletionSubscription<T> subscription = new CompletionSubscription<>(subscriber, sources);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    /**
+     * Map every item in given scope and publish the results. Mapping of an
+     * item starts only when there is demand for it.
+     *
+     * @param <T>
+     * @param <R>
+     * @param scope
+     * @param items
+     * @param mapper
+     * @return
+     */
+    public static <T, R> Flow.Publisher<SafeOpt<R>> mapAsync(SafeScope scope, Iterable<? extends T> items, UncheckedFunction<? super T, ? extends R> mapper) {
+        Objects.requireNonNull(scope, "Null scope");
+        Objects.requireNonNull(items, "Null items");
+        Objects.requireNonNull(mapper, "Null map function");
+        Iterable<SafeOpt<R>> sources = () -> {
+            Iterator<? extends T> iterator = items.iterator();
+            return new Iterator<SafeOpt<R>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public SafeOpt<R> next() {
+                    return scope.of(iterator.next()).map(mapper);
+                }
+            };
+        };
+        return ofCompletions(sources);
+    }
+
+    private static class CompletionSubscription<T> implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super SafeOpt<T>> subscriber;
+        private final Iterable<? extends SafeOpt<? extends T>> sources;
+        private final ConcurrentLinkedQueue<SafeOpt<T>> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // only accessed in drain loop
+        private Iterator<? extends SafeOpt<? extends T>> iterator;
+        private boolean exhausted;
+        private long emitted;
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable badRequest;
+
+        CompletionSubscription(Flow.Subscriber<? super SafeOpt<T>> subscriber, Iterable<? extends SafeOpt<? extends T>> sources) {
+            this.subscriber = subscriber;
+            this.sources = sources;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("Non-positive request " + n);
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void complete(SafeOpt<? extends T> result) {
+            ready.add((SafeOpt<T>) result);
+            inFlight.decrementAndGet();
+            drain();
+        }
+
+        private void start(SafeOpt<? extends T> source) {
+            inFlight.incrementAndGet();
+            if (source == null) {
+                complete(SafeOpt.empty());
+            } else if (source instanceof SafeOptAsync) {
+                ((SafeOptAsync<T>) source).onComplete(this::complete);
+            } else if (source instanceof SafeOptCollapse) {
+                complete(((SafeOptCollapse<? extends T>) source).collapse());
+            } else {
+                complete(source);
+            }
+        }
+
+        /**
+         * Pull next source, capturing iterator errors.
+         *
+         * @return {@code false} if exhausted
+         */
+        private boolean pull() {
+            SafeOpt<? extends T> next;
+            try {
+                if (iterator == null) {
+                    iterator = sources.iterator();
+                }
+                if (!iterator.hasNext()) {
+                    exhausted = true;
+                    return false;
+                }
+                next = iterator.next();
+            } catch (Throwable t) {
+                exhausted = true;
+                inFlight.incrementAndGet();
+                complete(SafeOpt.error(NestedException.unwrap(t)));
+                return false;
+            }
+            start(next);
+            return true;
+        }
+
+        /**
+         * Serialized signalling, only one thread at a time, reentrant calls
+         * just schedule another pass.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled || done) {
+                    ready.clear();
+                    return;
+                }
+                Throwable bad = badRequest;
+                if (bad != null) {
+                    done = true;
+                    ready.clear();
+                    subscriber.onError(bad);
+                    return;
+                }
+                long demand = requested.get();
+                SafeOpt<T> result;
+                while (emitted < demand && !cancelled && (result = ready.poll()) != null) {
+                    emitted++;
+                    subscriber.onNext(result);
+                }
+                while (!exhausted && !cancelled && inFlight.get() + ready.size() < demand - emitted) {
+                    if (!pull()) {
+                        break;
+                    }
+                }
+                if (exhausted && !cancelled && inFlight.get() == 0 && ready.isEmpty()) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
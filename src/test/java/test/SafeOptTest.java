@@ -3,33 +3,62 @@ package test;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lt.lb.uncheckedutils.CancelException;
 import lt.lb.uncheckedutils.Checked;
 import lt.lb.uncheckedutils.NestedException;
 import lt.lb.uncheckedutils.PassableException;
 import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.SafeOptCollapse;
+import lt.lb.uncheckedutils.SafeOptCollectors;
+import lt.lb.uncheckedutils.SafeOptDouble;
+import lt.lb.uncheckedutils.SafeOptInt;
+import lt.lb.uncheckedutils.SafeOptLong;
+import lt.lb.uncheckedutils.SafeOptMutable;
+import lt.lb.uncheckedutils.SafeIO;
+import lt.lb.uncheckedutils.SafeResults;
+import lt.lb.uncheckedutils.SafeSeq;
+import lt.lb.uncheckedutils.SafeStreams;
 import lt.lb.uncheckedutils.Thrower;
 import lt.lb.uncheckedutils.concurrent.CancelPolicy;
+import lt.lb.uncheckedutils.concurrent.SafeCache;
+import lt.lb.uncheckedutils.concurrent.SafeOptAsync;
+import lt.lb.uncheckedutils.concurrent.SafePipeline;
 import lt.lb.uncheckedutils.concurrent.SafeScope;
 import lt.lb.uncheckedutils.concurrent.Submitter;
+import lt.lb.uncheckedutils.concurrent.TimerWheel;
+import lt.lb.uncheckedutils.func.UncheckedFunction;
 import org.assertj.core.api.Assertions;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.assertj.core.api.ThrowableTypeAssert;
@@ -135,6 +164,707 @@ public class SafeOptTest {
 
     }
 
+    @Test
+    public void testPrimitive() {
+        SafeOptInt parsed = SafeOpt.of("10").mapToInt(Integer::parseInt);
+        assertThat(parsed.map(m -> m * 10).filter(f -> f > 50).orElse(-1)).isEqualTo(100);
+        assertThat(parsed.filter(f -> f > 50).isEmpty()).isTrue();
+        assertThat(parsed.filter(f -> f > 50).hasError()).isFalse();
+        assertThat(parsed.flatMap(m -> SafeOptInt.of(m + 1)).getAsInt()).isEqualTo(11);
+        assertThat(parsed.mapToLong(m -> m * 10_000_000_000L).getAsLong()).isEqualTo(100_000_000_000L);
+        assertThat(parsed.mapToDouble(m -> m / 4d).mapToObj(String::valueOf).get()).isEqualTo("2.5");
+        assertThat(parsed.boxed()).isEqualTo(SafeOpt.of(10));
+
+        SafeOptInt failed = SafeOpt.of("NaN").mapToInt(Integer::parseInt);
+        assertThat(failed.isPresent()).isFalse();
+        assertThat(failed.rawException()).isInstanceOf(NumberFormatException.class);
+        assertThat(failed.map(m -> m + 1).orElse(-1)).isEqualTo(-1);
+        assertThat(failed.mapToDouble(m -> m).mapToLong(m -> (long) m).mapToObj(m -> m).rawException()).isSameAs(failed.rawException());
+        assertThat(parsed.map(m -> m / 0).rawException()).isInstanceOf(ArithmeticException.class);
+        assertThat(SafeOptLong.of(5).peek(m -> {
+            throw new IllegalStateException();
+        }).getError().select(IllegalStateException.class).isPresent()).isTrue();
+        assertThat(SafeOpt.of("10").mapToDouble(m -> {
+            throw new IOException(m);
+        }).rawException()).isInstanceOf(IOException.class);// checked exceptions are captured too
+        assertThat(SafeOptDouble.of(1).filter(m -> {
+            throw new IOException();
+        }).hasError()).isTrue();
+
+        Assertions.assertThatExceptionOfType(NestedException.class).isThrownBy(() -> failed.getAsInt());
+        Assertions.assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(() -> SafeOptDouble.empty().getAsDouble());
+        assertThat(SafeOpt.ofLazy("5").mapToInt(Integer::parseInt).getAsInt()).isEqualTo(5);
+        assertThat(SafeOpt.<String>empty().mapToLong(Long::parseLong)).isEqualTo(SafeOptLong.empty());
+    }
+
+    @Test
+    public void testMutable() {
+        SafeOptMutable<String> carrier = new SafeOptMutable<>();
+        List<SafeOpt<Integer>> kept = new ArrayList<>();
+        int sum = 0;
+        for (String row : Arrays.asList("1", "NaN", "-5", "10")) {
+            SafeOpt<Integer> parsed = carrier.set(row).map(Integer::parseInt).filter(f -> f > 0);
+            assertThat(parsed).isSameAs(carrier);
+            sum += parsed.orElse(0);
+            kept.add(carrier.freeze());
+        }
+        assertThat(sum).isEqualTo(11);
+        assertThat(kept.get(0)).isEqualTo(SafeOpt.of(1));
+        assertThat(kept.get(1).getError().select(NumberFormatException.class).isPresent()).isTrue();
+        assertThat(kept.get(2)).isEqualTo(SafeOpt.empty());
+        assertThat(kept.get(3)).isEqualTo(SafeOpt.of(10));
+
+        SafeOpt<Integer> failed = carrier.set("5").map(m -> {
+            throw NestedException.of(new IOException("io"));
+        });
+        assertThat(failed.getError().select(IOException.class).isPresent()).isTrue();
+        assertThat(failed.hasError()).isTrue();// getError does not modify
+        assertThat(carrier.set("5").flatMap(m -> SafeOpt.of(m + m)).get()).isEqualTo("55");
+    }
+
+    @Test
+    public void testTraverse() {
+        List<String> rows = Arrays.asList("1", "2", "3");
+        assertThat(SafeOpt.traverse(rows, Integer::parseInt).get()).containsExactly(1, 2, 3);
+        List<String> visited = new ArrayList<>();
+        SafeOpt<List<Integer>> failed = SafeOpt.traverse(Arrays.asList("1", "NaN", "3"), m -> {
+            visited.add(m);
+            return Integer.parseInt(m);
+        });
+        assertThat(failed.getError().select(NumberFormatException.class).isPresent()).isTrue();
+        assertThat(visited).containsExactly("1", "NaN");
+        assertThat(SafeOpt.traverse(rows, m -> null).isEmpty()).isTrue();
+        assertThat(SafeOpt.traverse(new ArrayList<String>(), Integer::parseInt).get()).isEmpty();
+
+        assertThat(SafeOpt.sequence(Arrays.asList(SafeOpt.of(1), SafeOpt.ofLazy(2).map(m -> m * 2))).get()).containsExactly(1, 4);
+        SafeOpt<List<Integer>> sequenceError = SafeOpt.sequence(Arrays.asList(SafeOpt.of(1), SafeOpt.error(new PassableException("err")), SafeOpt.empty()));
+        assertThat(sequenceError.getError().select(PassableException.class).isPresent()).isTrue();
+        assertThat(SafeOpt.sequence(Arrays.asList(SafeOpt.of(1), SafeOpt.empty())).hasValueOrError()).isFalse();
+    }
+
+    @Test
+    public void testMapAllAsync() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 10_001; i++) {
+            items.add(i);
+        }
+        ExecutorService service = Executors.newFixedThreadPool(3);
+        for (Submitter submitter : Arrays.asList(Submitter.DEFAULT_POOL, Submitter.IN_PLACE, Submitter.NEW_THREAD,
+                Submitter.ofLimitedParallelism(service, 3, 1))) {
+            SafeOptAsync<List<Integer>> mapped = SafeOptAsync.mapAllAsync(submitter, items, m -> m * 2);
+            assertThat(mapped.toCompletableFuture().get(10, TimeUnit.SECONDS)).hasSize(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                assertThat(mapped.get().get(i)).isEqualTo(i * 2);
+            }
+            SafeOpt<List<Integer>> failed = SafeOptAsync.mapAllAsync(submitter, items, m -> {
+                if (m == 7000) {
+                    throw new PassableException("fail at " + m);
+                }
+                return m;
+            });
+            assertThat(failed.getError().select(PassableException.class).map(m -> m.getMessage()).get()).isEqualTo("fail at 7000");
+            assertThat(SafeOptAsync.mapAllAsync(submitter, items, m -> m == 10 ? null : m).hasValueOrError()).isFalse();
+            assertThat(SafeOptAsync.mapAllAsync(submitter, new ArrayList<Integer>(), m -> m).get()).isEmpty();
+        }
+        service.shutdown();
+    }
+
+    @Test
+    public void testMapAllAsyncNoWaitingWorker() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        Submitter submitter = Submitter.ofLimitedParallelism(service, 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        SafeOpt<List<Integer>> mapped = SafeOptAsync.mapAllAsync(submitter, Arrays.asList(0, 1), m -> {
+            if (m == 0) {
+                release.await();
+            } else {
+                secondDone.countDown();
+            }
+            return m;
+        });
+        assertThat(secondDone.await(10, TimeUnit.SECONDS)).isTrue();
+        // worker of the finished chunk is free, not waiting for the other chunk
+        CountDownLatch free = new CountDownLatch(1);
+        service.execute(free::countDown);
+        assertThat(free.await(10, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        assertThat(mapped.get()).containsExactly(0, 1);
+        service.shutdown();
+    }
+
+    @Test
+    public void testCollectors() {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(i % 10 == 0 ? "NaN" : i % 25 == 1 ? "" : String.valueOf(i));
+        }
+        SafeOptCollectors.Partition<Integer> sequential = rows.stream()
+                .map(row -> SafeOpt.of(row).filter(f -> !f.isEmpty()).map(Integer::parseInt))
+                .collect(SafeOptCollectors.partitioning());
+        SafeOptCollectors.Partition<Integer> parallel = rows.parallelStream()
+                .collect(SafeOptCollectors.partitioning(row -> row.isEmpty() ? null : Integer.parseInt(row)));
+
+        for (SafeOptCollectors.Partition<Integer> part : Arrays.asList(sequential, parallel)) {
+            assertThat(part.getValues()).hasSize(8600);
+            assertThat(part.getErrors()).hasSize(1000).allMatch(e -> e instanceof NumberFormatException);
+            assertThat(part.getErrorCounts()).containsOnlyKeys(NumberFormatException.class).containsValue(1000L);
+            assertThat(part.getEmptyCount()).isEqualTo(400);
+        }
+        assertThat(parallel.getValues()).containsExactlyElementsOf(sequential.getValues());
+    }
+
+    @Test
+    public void testSafeResults() {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(i % 10 == 0 ? "NaN" : i % 25 == 1 ? "" : String.valueOf(i));
+        }
+        UncheckedFunction<String, Integer> parse = row -> row.isEmpty() ? null : Integer.parseInt(row);
+        SafeResults<Integer> mapped = SafeResults.mapAll(rows, parse);
+        SafeResults<Integer> parallel = rows.parallelStream().collect(SafeOptCollectors.toResults(parse));
+        SafeResults<Integer> fromOpts = rows.stream().map(row -> SafeOpt.of(row).map(parse)).collect(SafeOptCollectors.toResults());
+
+        for (SafeResults<Integer> results : Arrays.asList(mapped, parallel, fromOpts)) {
+            assertThat(results.size()).isEqualTo(10_000);
+            assertThat(results.getValueCount()).isEqualTo(8600);
+            assertThat(results.getErrorCount()).isEqualTo(1000);
+            assertThat(results.getEmptyCount()).isEqualTo(400);
+            for (int i = 0; i < rows.size(); i++) {
+                SafeOpt<Integer> expected = SafeOpt.of(rows.get(i)).map(parse);
+                assertThat(results.rawValue(i)).isEqualTo(expected.rawValue());
+                assertThat(results.hasError(i)).isEqualTo(expected.hasError());
+                assertThat(results.get(i).getError().map(Throwable::getMessage)).isEqualTo(expected.getError().map(Throwable::getMessage));
+            }
+            List<Integer> errorIndices = new ArrayList<>();
+            results.forEachError((error, index) -> {
+                assertThat(error).isSameAs(results.rawException(index));
+                errorIndices.add(index);
+            });
+            assertThat(errorIndices).hasSize(1000).allMatch(i -> i % 10 == 0);
+            assertThat(results.getErrors()).hasSize(1000).allMatch(e -> e instanceof NumberFormatException);
+            assertThat(results).hasSize(8600).doesNotContainNull();
+            assertThat(results.toSafeOpt().getError().select(NumberFormatException.class).isPresent()).isTrue();
+        }
+        SafeResults<Integer> ok = SafeResults.mapAll(Arrays.asList("1", "2", "3"), Integer::parseInt);
+        assertThat(ok.toSafeOpt().get()).containsExactly(1, 2, 3);
+        assertThat(ok.hasErrors()).isFalse();
+        assertThat(new SafeResults<Integer>(0).addValue(1).addEmpty().toSafeOpt().hasValueOrError()).isFalse();
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> ok.get(3));
+    }
+
+    @Test
+    public void testSafeStreams() {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(i % 10 == 0 ? "NaN" : String.valueOf(i));
+        }
+        Collection<Throwable> errors = new LinkedBlockingDeque<>();
+        List<Integer> parsed = SafeStreams.mapSafe(rows.stream().parallel(), Integer::parseInt, errors::add)
+                .collect(Collectors.toList());
+        assertThat(parsed).hasSize(9000).isSorted();
+        assertThat(errors).hasSize(1000).allMatch(e -> e instanceof NumberFormatException);
+
+        errors.clear();
+        AtomicInteger mapped = new AtomicInteger();
+        long count = SafeStreams.mapSafe(rows.stream(), m -> {
+            mapped.incrementAndGet();
+            return Integer.parseInt(m);
+        }, errors::add, SafeStreams.ErrorPolicy.stopAfter(3)).count();
+        assertThat(errors).hasSize(3);
+        assertThat(count).isEqualTo(18);
+        assertThat(mapped.get()).isEqualTo(21);
+
+        errors.clear();
+        long parallelCount = SafeStreams.mapSafe(rows.parallelStream(), m -> {
+            if (m.equals("5001")) {
+                throw new AssertionError("fatal");
+            }
+            return Integer.parseInt(m);
+        }, errors::add, SafeStreams.ErrorPolicy.stopOnError()).count();
+        assertThat(parallelCount).isLessThan(9000);
+        assertThat(errors).anyMatch(e -> e instanceof AssertionError);
+    }
+
+    @Test
+    public void testStream() {
+        List<SafeOpt<Integer>> opts = Arrays.asList(SafeOpt.of(1), SafeOpt.empty(), SafeOpt.ofLazy(2), SafeOpt.ofLazy(3).filter(f -> false));
+        assertThat(opts.stream().flatMap(SafeOpt::stream).collect(Collectors.toList())).containsExactly(1, 2);
+        for (SafeOpt<Integer> opt : opts) {
+            assertThat(opt.stream().count()).isEqualTo(opt.isPresent() ? 1 : 0);
+        }
+
+        SafeOpt<Integer> error = SafeOpt.of("NaN").map(Integer::parseInt);
+        SafeOpt<Integer> lazyError = SafeOpt.ofLazy("NaN").map(Integer::parseInt);
+        Assertions.assertThatExceptionOfType(NestedException.class).isThrownBy(() -> error.stream());
+        Stream<Integer> lazyStream = lazyError.stream();// nothing evaluated yet
+        Assertions.assertThatExceptionOfType(NestedException.class).isThrownBy(() -> lazyStream.count());
+        assertThat(error.ignoringExceptionStream().count()).isZero();
+        assertThat(lazyError.ignoringExceptionStream().count()).isZero();
+
+        Iterator<Integer> iterator = SafeOptCollapse.asIterator(SafeOpt.of(5), false);
+        assertThat(iterator.hasNext()).isTrue();
+        assertThat(iterator.next()).isEqualTo(5);
+        assertThat(iterator.hasNext()).isFalse();
+        Iterator<Integer> errorIterator = SafeOptCollapse.asIterator(error, false);
+        assertThat(errorIterator.hasNext()).isTrue();
+        Assertions.assertThatExceptionOfType(NestedException.class).isThrownBy(() -> errorIterator.next());
+    }
+
+    @Test
+    public void testSafeSeq() {
+        AtomicInteger parsedCount = new AtomicInteger();
+        SafeSeq<Integer> seq = SafeSeq.of("1", "2", "NaN", "4", "x", "6")
+                .map(m -> {
+                    parsedCount.incrementAndGet();
+                    return Integer.parseInt(m);
+                })
+                .filter(f -> f % 2 == 0)
+                .flatMap(m -> Arrays.asList(m, m * 10));
+        assertThat(parsedCount.get()).isZero();
+
+        SafeOpt<List<Integer>> shortCircuit = seq.toList();
+        assertThat(shortCircuit.getError().select(NumberFormatException.class).isPresent()).isTrue();
+        assertThat(parsedCount.get()).isEqualTo(3);
+
+        SafeOptCollectors.Partition<Integer> all = seq.collectAll();
+        assertThat(all.getValues()).containsExactly(2, 20, 4, 40, 6, 60);
+        assertThat(all.getErrors()).hasSize(2);
+        assertThat(seq.findFirst().get()).isEqualTo(2);
+        assertThat(SafeSeq.of("a", "b").map(String::toUpperCase).toList().get()).containsExactly("A", "B");
+        assertThat(SafeSeq.empty().toList().get()).isEmpty();
+
+        SafeSeq.Cursor<Integer> cursor = seq.cursor();
+        assertThat(cursor.next(3).getValues()).containsExactly(2, 20);// error counts too
+        assertThat(cursor.next(3).getValues()).containsExactly(4, 40);
+        SafeOptCollectors.Partition<Integer> last = cursor.next(3);
+        assertThat(last.getValues()).containsExactly(6, 60);
+        assertThat(cursor.isExhausted()).isTrue();
+
+        parsedCount.set(0);
+        SafeSeq<Integer> memo = seq.memoize();
+        assertThat(memo.findFirst().get()).isEqualTo(2);
+        assertThat(parsedCount.get()).isEqualTo(2);
+        assertThat(memo.collectAll().getValues()).containsExactly(2, 20, 4, 40, 6, 60);
+        assertThat(memo.collectAll().getErrors()).hasSize(2);
+        assertThat(parsedCount.get()).isEqualTo(6);// evaluated once, resumed after findFirst
+    }
+
+    /**
+     * Stage queued directly into given work.
+     */
+    private static class QueuedStage<T> extends SafeOptAsync<T> {
+
+        QueuedStage(Submitter submitter, AsyncWork work, StageTask<SafeOpt<T>> task) {
+            super(submitter, task, work);
+            work.addMaybeSubmit(submitter, (FutureTask) task);
+        }
+
+        static <T> QueuedStage<T> of(Submitter submitter, AsyncWork work, Callable<SafeOpt<T>> call) {
+            return new QueuedStage<>(submitter, work, new StageTask<>(call));
+        }
+    }
+
+    @Test
+    public void testResumeAfterWorkerLeft() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(1);
+        Submitter submitter = Submitter.ofLimitedParallelism(service, 1, 1);
+        SafeOptAsync.AsyncWork work = new SafeOptAsync.AsyncWork(null, null);
+        CountDownLatch go = new CountDownLatch(1);
+        // worker thread leaves the work after this task, with more work queued
+        FutureTask<SafeOpt> leaving = new FutureTask<SafeOpt>(() -> {
+            go.await();
+            return SafeOpt.empty();
+        }) {
+            @Override
+            protected void done() {
+                throw new IllegalStateException("Worker left");
+            }
+        };
+        work.addMaybeSubmit(submitter, leaving);
+        List<Thread> ranIn = new CopyOnWriteArrayList<>();
+        QueuedStage<Integer> stage = QueuedStage.of(submitter, work, () -> {
+            ranIn.add(Thread.currentThread());
+            return SafeOpt.of(1);
+        });
+
+        FutureTask<SafeOpt<Integer>> collapsing = new FutureTask<>(stage::collapse);
+        Thread waiter = new Thread(collapsing);
+        waiter.setDaemon(true);
+        waiter.start();
+        go.countDown();
+        // resumed by the waiting thread itself
+        assertThat(collapsing.get(10, TimeUnit.SECONDS).get()).isEqualTo(1);
+        assertThat(ranIn).containsExactly(waiter);
+
+        // cancellation wakes the waiting thread too, without interrupting it
+        ExecutorService blockedService = Executors.newFixedThreadPool(1);
+        CancelPolicy cp = new CancelPolicy(false, false, true);
+        CountDownLatch never = new CountDownLatch(1);
+        SafeOpt<Integer> blocked = new SafeOptAsync<>(Submitter.ofLimitedParallelism(blockedService, 1, 1), SafeOpt.of(1), cp).map(m -> {
+            never.await();
+            return m;
+        });
+        FutureTask<SafeOpt<Throwable>> waiting = new FutureTask<>(() -> blocked.getError());
+        Thread cancelWaiter = new Thread(waiting);
+        cancelWaiter.setDaemon(true);
+        cancelWaiter.start();
+        while (cancelWaiter.getState() != Thread.State.WAITING) {// parked in collapse
+            Thread.yield();
+        }
+        cp.cancel(new PassableException("Stop"));
+        // nothing else would wake it, the stage never completes
+        assertThat(waiting.get(10, TimeUnit.SECONDS).get()).isInstanceOf(CancelException.class);
+        never.countDown();
+        blockedService.shutdown();
+        service.shutdown();
+    }
+
+    @Test
+    public void testCancelInterruptDoesNotLeak() {
+        CancelPolicy cp = new CancelPolicy(true, true, true);
+        SafeOptAsync.AsyncWork work = new SafeOptAsync.AsyncWork(null, cp);
+        AtomicBoolean interruptedInside = new AtomicBoolean();
+        // runs in this thread, stage ignores the interrupt
+        QueuedStage.of(Submitter.IN_PLACE, work, () -> {
+            Thread canceller = new Thread(() -> cp.cancel(new PassableException("Stop")));
+            canceller.start();
+            while (canceller.isAlive()) {
+                Thread.yield();
+            }
+            interruptedInside.set(Thread.currentThread().isInterrupted());
+            return SafeOpt.of(1);
+        });
+        assertThat(interruptedInside.get()).isTrue();// reaches the thread running the cancelled stage
+        assertThat(Thread.interrupted()).isFalse();// but not what it runs next
+    }
+
+    @Test
+    public void testAsyncCallbacks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SafeOptAsync<Integer> slow = (SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1).map(m -> {
+            release.await();
+            return m + 1;
+        });
+        List<String> events = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        slow.onComplete(r -> {
+            events.add("first " + r.get());
+            done.countDown();
+        }).onComplete(r -> {
+            events.add("second " + r.get());
+            done.countDown();
+        });
+        assertThat(events).isEmpty();// registered, not blocked
+        SafeOptAsync<Integer> after = slow.whenComplete(r -> {
+            throw new PassableException("callback failed");
+        });
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(events).containsExactly("first 2", "second 2");
+        assertThat(after.getError().select(PassableException.class).isPresent()).isTrue();
+        assertThat(slow.whenComplete(r -> events.add("in place")).get()).isEqualTo(2);
+        assertThat(events).contains("in place");
+
+        SafeOptAsync<Integer> failed = (SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, "NaN").map(Integer::parseInt);
+        SafeOpt<Integer> chained = failed.whenComplete(r -> events.add("error")).map(m -> m + 1);
+        assertThat(chained.getError().select(NumberFormatException.class).isPresent()).isTrue();
+        assertThat(events).contains("error");
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        // a single timeout serves the whole chain
+        int pending = TimerWheel.shared().getPending();
+        SafeOpt<Integer> counting = ((SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 0)).withTimeout(Duration.ofSeconds(10));
+        for (int i = 0; i < 20; i++) {
+            counting = counting.map(m -> m + 1);
+        }
+        assertThat(TimerWheel.shared().getPending()).isEqualTo(pending + 1);
+        assertThat(counting.get()).isEqualTo(20);
+
+        CountDownLatch release = new CountDownLatch(1);
+        SafeOptAsync<Integer> slow = (SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1).map(m -> {
+            release.await();
+            return m + 1;
+        });
+        long start = System.nanoTime();
+        SafeOpt<Integer> late = slow.withTimeout(Duration.ofMillis(50));
+        assertThat(late.getError().get()).isSameAs(SafeOptAsync.ERR_DEADLINE);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        release.countDown();
+        assertThat(slow.get()).isEqualTo(2);// not cancelled
+        assertThat(slow.withTimeout(Duration.ofMillis(1)).get()).isEqualTo(2);// already complete
+
+        SafeOptAsync<Integer> timed = ((SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1)).withTimeout(Duration.ofSeconds(10));
+        assertThat(timed.map(m -> m + 1).get()).isEqualTo(2);
+        assertThat(timed.getTimeLeft()).isPresent();
+
+        // deadline carries over to chained stages
+        CountDownLatch never = new CountDownLatch(1);
+        SafeOpt<Integer> chained = ((SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1)).withTimeout(Duration.ofMillis(100))
+                .map(m -> m + 1)
+                .map(m -> {
+                    never.await(10, TimeUnit.SECONDS);
+                    return m + 1;
+                });
+        assertThat(((SafeOptAsync<Integer>) chained).collapse().rawException()).isSameAs(SafeOptAsync.ERR_DEADLINE);
+        SafeOptAsync<Integer> expired = ((SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1)).withTimeout(Duration.ofMillis(1));
+        Thread.sleep(5);
+        assertThat(expired.map(m -> m + 1).getError().get()).isSameAs(SafeOptAsync.ERR_DEADLINE);// started after it
+
+        // fallback recovers from the timeout, it runs neither in the timer thread nor under the missed deadline
+        SafeOptAsync<Integer> stuck = (SafeOptAsync<Integer>) SafeOpt.ofAsync(Submitter.NEW_THREAD, 1).map(m -> {
+            never.await(10, TimeUnit.SECONDS);
+            return m;
+        });
+        List<String> fallbackThread = new CopyOnWriteArrayList<>();
+        SafeOpt<Integer> recovered = stuck.withTimeout(Duration.ofMillis(50)).orGet(() -> {
+            fallbackThread.add(Thread.currentThread().getName());
+            // timers still fire while the fallback runs
+            CountDownLatch unrelated = new CountDownLatch(1);
+            TimerWheel.shared().schedule(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10), unrelated::countDown);
+            try {
+                return unrelated.await(10, TimeUnit.SECONDS) ? 42 : -1;
+            } catch (InterruptedException ex) {
+                return -1;
+            }
+        });
+        assertThat(recovered.get()).isEqualTo(42);
+        assertThat(fallbackThread).hasSize(1).noneMatch(name -> name.startsWith("TimerWheel"));
+
+        CancelPolicy cp = new CancelPolicy(true, false, true);
+        SafeOpt<Integer> cancelled = new SafeOptAsync<>(Submitter.NEW_THREAD, SafeOpt.of(1), cp)
+                .map(m -> {
+                    never.await(10, TimeUnit.SECONDS);
+                    return m;
+                });
+        SafeOpt<Integer> cancelledLate = ((SafeOptAsync<Integer>) cancelled).withTimeout(Duration.ofMillis(50), true);
+        assertThat(cancelledLate.hasError()).isTrue();
+        assertThat(cp.cancelled()).isTrue();
+        assertThat(cp.getError().rawException()).isInstanceOf(CancelException.class).hasCause(SafeOptAsync.ERR_DEADLINE);
+        never.countDown();
+    }
+
+    @Test
+    public void testCompletionStage() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        AtomicInteger mapped = new AtomicInteger();
+        SafeOpt<Integer> chain = SafeOpt.ofCompletionStage(source).map(m -> {
+            mapped.incrementAndGet();
+            return Integer.parseInt(m);
+        });
+        CompletableFuture<Integer> result = ((SafeOptAsync<Integer>) chain).toCompletableFuture();
+        Thread.sleep(50);
+        assertThat(mapped.get()).isZero();// nothing submitted before completion
+        assertThat(result.isDone()).isFalse();
+        source.complete("5");
+        assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(5);
+        assertThat(chain.get()).isEqualTo(5);
+
+        CompletableFuture<String> failing = new CompletableFuture<>();
+        SafeOpt<String> failed = SafeOpt.ofCompletionStage(Submitter.NEW_THREAD, failing.thenApply(String::trim));
+        failing.completeExceptionally(new PassableException("remote failure"));
+        assertThat(failed.getError().select(PassableException.class).isPresent()).isTrue();
+
+        // chained stages never run in the completion thread, even with every thread of the submitter taken
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            Submitter limited = Submitter.ofLimitedParallelism(service, 1, 1);
+            CountDownLatch release = new CountDownLatch(1);
+            SafeOpt<Boolean> busy = new SafeOptAsync<>(limited, SafeOpt.of(1)).map(m -> release.await(10, TimeUnit.SECONDS));
+            CompletableFuture<String> remote = new CompletableFuture<>();
+            SafeOpt<Thread> ranIn = SafeOpt.ofCompletionStage(limited, remote).map(m -> Thread.currentThread());
+            Thread completer = new Thread(() -> remote.complete("done"));
+            completer.start();
+            completer.join();
+            assertThat(((SafeOptAsync<Thread>) ranIn).toCompletableFuture().get(10, TimeUnit.SECONDS)).isNotIn(completer, Thread.currentThread());
+            release.countDown();
+            assertThat(busy.get()).isTrue();
+        } finally {
+            service.shutdown();
+        }
+
+        CompletableFuture<Integer> error = ((SafeOptAsync<Integer>) SafeOpt.ofAsync("NaN").map(Integer::parseInt)).toCompletableFuture();
+        Assertions.assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> error.get(10, TimeUnit.SECONDS))
+                .withCauseInstanceOf(NumberFormatException.class);
+        assertThat(((SafeOptAsync<Object>) SafeOpt.ofAsync(null)).toCompletableFuture().get()).isNull();
+    }
+
+    @Test
+    public void testSafePipeline() throws InterruptedException {
+        Collection<SafeOpt<?>> dead = new LinkedBlockingDeque<>();
+        Collection<Integer> received = new LinkedBlockingDeque<>();
+        SafePipeline<String> pipeline = SafePipeline.<String>create((item, error) -> dead.add(error))
+                .stage(Submitter.DEFAULT_POOL, 16, Integer::parseInt)
+                .stage(Submitter.NEW_THREAD, 8, 4, m -> m % 3 == 0 ? null : m * 2)
+                .build(received::add);
+        for (int i = 0; i < 10_000; i++) {
+            pipeline.put(i % 10 == 0 ? "NaN" : String.valueOf(i));
+        }
+        pipeline.close();
+        assertThat(pipeline.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(pipeline.getPending()).isZero();
+        assertThat(dead).hasSize(1000).allMatch(e -> e.getError().select(NumberFormatException.class).isPresent());
+        assertThat(received).hasSize(6000).allMatch(m -> m % 2 == 0 && (m / 2) % 3 != 0);
+        Assertions.assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> pipeline.put("1"));
+
+        CountDownLatch gate = new CountDownLatch(1);
+        SafePipeline<Integer> blocked = SafePipeline.<Integer>create((item, error) -> dead.add(error))
+                .stage(Submitter.NEW_THREAD, 2, m -> {
+                    gate.await();
+                    return m;
+                })
+                .build(m -> {
+                });
+        int accepted = 0;
+        while (blocked.offer(accepted)) {
+            accepted++;
+        }
+        assertThat(accepted).isBetween(2, 3);// one might be taken by the waiting worker
+        gate.countDown();
+        blocked.close();
+        assertThat(blocked.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+
+        // every stage on the same two threads, full buffers must not block them
+        ExecutorService shared = Executors.newFixedThreadPool(2);
+        Submitter sharedSubmitter = Submitter.ofUnlimitedParallelism(shared);
+        Collection<Integer> sharedReceived = new LinkedBlockingDeque<>();
+        SafePipeline<Integer> sharing = SafePipeline.<Integer>create((item, error) -> dead.add(error))
+                .stage(sharedSubmitter, 1, 2, m -> m + 1)
+                .stage(sharedSubmitter, 1, 2, m -> m * 2)
+                .stage(sharedSubmitter, 1, 2, m -> m - 2)
+                .build(sharedReceived::add);
+        Thread feeder = new Thread(() -> {
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    sharing.put(i);
+                }
+            } catch (InterruptedException ex) {
+            }
+            sharing.close();
+        });
+        feeder.setDaemon(true);
+        feeder.start();
+        assertThat(sharing.awaitCompletion(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(sharedReceived).hasSize(2000).allMatch(m -> m % 2 == 0);
+        shared.shutdown();
+    }
+
+    @Test
+    public void testSafeCache() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SafeCache<String, Integer> cache = new SafeCache<>(key -> {
+            loads.incrementAndGet();
+            release.await();
+            return Integer.parseInt(key);
+        }, 100, Duration.ofHours(1), Duration.ofMillis(500));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<SafeOpt<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(pool.submit(() -> cache.get("NaN")));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<SafeOpt<Integer>> future : futures) {
+            assertThat(future.get().getError().select(NumberFormatException.class).isPresent()).isTrue();
+        }
+        pool.shutdown();
+        assertThat(loads.get()).isEqualTo(1);// single flight
+        assertThat(cache.get("NaN").hasError()).isTrue();
+        assertThat(loads.get()).isEqualTo(1);// negative caching
+        Thread.sleep(600);
+        assertThat(cache.get("NaN").hasError()).isTrue();
+        assertThat(loads.get()).isEqualTo(2);// failure expired
+
+        assertThat(cache.get("1").get()).isEqualTo(1);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.getIfPresent("1").get()).isEqualTo(1);
+        }
+        for (int i = 0; i < 200; i++) {
+            cache.get(String.valueOf(i + 1000));
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.getIfPresent("1").get()).isEqualTo(1);// frequently used entry survives
+        cache.invalidate("1");
+        assertThat(cache.getIfPresent("1").isPresent()).isFalse();
+
+        // popularity fades while the cache is not full, no eviction needed for aging
+        SafeCache<String, String> aging = new SafeCache<>(key -> key, 8, Duration.ofHours(1), Duration.ofHours(1));
+        for (int i = 0; i < 1000; i++) {
+            aging.get("old");
+        }
+        for (int i = 0; i < 700; i++) {
+            aging.get("recent" + (i % 7));
+        }
+        aging.get("new");// over the bound
+        assertThat(aging.size()).isLessThanOrEqualTo(8);
+        assertThat(aging.getIfPresent("old").isPresent()).isFalse();
+        assertThat(aging.getIfPresent("recent6").isPresent()).isTrue();
+    }
+
+    @Test
+    public void testSafeIO() throws IOException {
+        Path file = Files.createTempFile("safeio", ".txt");
+        try {
+            StringBuilder content = new StringBuilder();
+            List<Long> offsets = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                offsets.add((long) content.length());
+                content.append(i % 100 == 0 ? "NaN" : String.valueOf(i)).append(i % 2 == 0 ? "\r\n" : "\n");
+            }
+            offsets.add((long) content.length());
+            content.append("5000");// no trailing new line
+            Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+            SafeIO.Records<Integer> sequential = SafeIO.readLines(file, StandardCharsets.UTF_8, 1000, Integer::parseInt).get();
+            SafeIO.Records<Integer> parallel = SafeIO.readLines(Submitter.DEFAULT_POOL, file, StandardCharsets.UTF_8, 1000, Integer::parseInt).get();
+            for (SafeIO.Records<Integer> records : Arrays.asList(sequential, parallel)) {
+                assertThat(records.size()).isEqualTo(5001);
+                assertThat(records.getResults().getErrorCount()).isEqualTo(50);
+                assertThat(records.getResults()).hasSize(4951).doesNotHaveDuplicates().contains(1, 4999, 5000);
+                for (int i = 0; i < records.size(); i++) {
+                    assertThat(records.getOffset(i)).isEqualTo(offsets.get(i));
+                }
+                List<Long> errorOffsets = new ArrayList<>();
+                records.forEachError((error, offset) -> errorOffsets.add(offset));
+                assertThat(errorOffsets).hasSize(50).allMatch(offsets::contains);
+                assertThat(records.get(100).getError().select(NumberFormatException.class).isPresent()).isTrue();
+            }
+
+            SafeIO.Records<Integer> lengths = SafeIO.readRecords(file, (byte) '\n', SafeIO.DEFAULT_CHUNK_SIZE, ByteBuffer::remaining).get();
+            assertThat(lengths.size()).isEqualTo(5001);
+            assertThat(lengths.get(0).get()).isEqualTo(4);// "NaN\r"
+
+            // tiny chunks, so reused windows have to grow and shift records
+            StringBuilder mixed = new StringBuilder();
+            List<Long> mixedOffsets = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                mixedOffsets.add((long) mixed.length());
+                for (int j = 0; j < (i * 7) % 23; j++) {
+                    mixed.append('x');
+                }
+                mixed.append('\n');
+            }
+            Files.write(file, mixed.toString().getBytes(StandardCharsets.UTF_8));
+            for (Submitter submitter : Arrays.asList(null, Submitter.DEFAULT_POOL)) {
+                SafeIO.Records<Integer> mixedLengths = submitter == null
+                        ? SafeIO.readRecords(file, (byte) '\n', 4, ByteBuffer::remaining).get()
+                        : SafeIO.readRecords(submitter, file, (byte) '\n', 4, ByteBuffer::remaining).get();
+                assertThat(mixedLengths.size()).isEqualTo(500);
+                for (int i = 0; i < 500; i++) {
+                    assertThat(mixedLengths.get(i).get()).isEqualTo((i * 7) % 23);
+                    assertThat(mixedLengths.getOffset(i)).isEqualTo(mixedOffsets.get(i));
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+        assertThat(SafeIO.readLines(file, Integer::parseInt).getError().select(IOException.class).isPresent()).isTrue();
+    }
+
     @Test
     public void testLazy() {
         List<String> states1 = new ArrayList<>();
@@ -204,6 +934,133 @@ public class SafeOptTest {
         assertThat(stateError).containsExactly("error");
     }
 
+    @Test
+    public void testLazyFused() {
+        List<String> states = new ArrayList<>();
+        SafeOpt<Integer> shared = SafeOpt.ofLazyFused("10")
+                .map(Integer::parseInt)
+                .map(m -> {
+                    states.add("shared");
+                    return m;
+                });
+        SafeOpt<Integer> branch1 = shared.map(m -> {
+            states.add("branch1");
+            return m + 1;
+        });
+        SafeOpt<Integer> branch2 = shared.filter(f -> {
+            states.add("branch2");
+            return true;
+        }).map(m -> m + 2);
+
+        assertThat(states).isEmpty();
+        assertThat(branch1.orNull()).isEqualTo(11);
+        assertThat(branch2.orNull()).isEqualTo(12);
+        assertThat(branch1.orNull()).isEqualTo(11);
+        assertThat(states).containsExactly("shared", "branch1", "branch2");// shared stage is memoized
+
+        List<String> stateError = new ArrayList<>();
+        SafeOpt<Integer> error = SafeOpt.ofLazyFused("NaN")
+                .map(Integer::parseInt)
+                .map(m -> {
+                    stateError.add("map");
+                    return m;
+                })
+                .peekError(err -> {
+                    stateError.add("error");
+                });
+        assertThat(stateError).isEmpty();
+        assertThat(error.getError().map(m -> m.getClass()).orNull()).isEqualTo(NumberFormatException.class);
+        assertThat(stateError).containsExactly("error");
+
+        assertThat(SafeOpt.ofLazyFused(() -> 5).map(m -> m * 2).orNull()).isEqualTo(10);
+
+        // stage becomes shared after a fused pass went through it
+        AtomicInteger peeked = new AtomicInteger();
+        SafeOpt<Integer> x = SafeOpt.ofLazyFused(1).map(m -> m + 1).peek(p -> peeked.incrementAndGet());
+        SafeOpt<Integer> a = x.map(m -> m * 10);
+        assertThat(a.get()).isEqualTo(20);
+        SafeOpt<Integer> b = x.map(m -> m * 100);
+        assertThat(b.get()).isEqualTo(200);
+        assertThat(peeked.get()).isEqualTo(1);
+
+        // intermediate stage collapsed after its descendant
+        AtomicInteger peekedMiddle = new AtomicInteger();
+        SafeOpt<Integer> middle = SafeOpt.ofLazyFused(1).peek(p -> peekedMiddle.incrementAndGet()).map(m -> m + 1);
+        SafeOpt<Integer> tail = middle.map(m -> m * 10).map(m -> m + 1);
+        assertThat(tail.get()).isEqualTo(21);
+        assertThat(middle.get()).isEqualTo(2);
+        assertThat(peekedMiddle.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLazyDeep() {
+        int depth = 100_000;
+        SafeOpt<Integer> lazy = SafeOpt.ofLazy(0);
+        SafeOpt<Integer> fused = SafeOpt.ofLazyFused(0);
+        SafeOpt<Integer> fusedShared = SafeOpt.ofLazyFused(0);
+        SafeOpt<Integer> confined = SafeOpt.ofLazyConfined(0);
+        for (int i = 0; i < depth; i++) {
+            lazy = lazy.map(m -> m + 1);
+            confined = confined.map(m -> m + 1);
+            fused = fused.map(m -> m + 1);
+            fusedShared = fusedShared.map(m -> m + 1);
+            fusedShared.map(m -> m - 1);// every stage is a branch point
+        }
+        assertThat(lazy.orNull()).isEqualTo(depth);
+        assertThat(fused.orNull()).isEqualTo(depth);
+        assertThat(fusedShared.orNull()).isEqualTo(depth);
+        assertThat(confined.orNull()).isEqualTo(depth);
+    }
+
+    @Test
+    public void testLazyRace() throws Exception {
+        AtomicInteger computed = new AtomicInteger();
+        SafeOpt<Integer> lazy = SafeOpt.ofLazy("10").map(Integer::parseInt).map(m -> {
+            computed.incrementAndGet();
+            Thread.sleep(100);
+            return m;
+        });
+        ExecutorService service = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(service.submit(() -> lazy.orNull()));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get()).isEqualTo(10);
+            }
+        } finally {
+            service.shutdown();
+        }
+        assertThat(computed.get()).isEqualTo(1);
+    }
+
+    private static SafeOpt<Integer> lazyWithState(Function<String, SafeOpt<String>> start, List<WeakReference<Object>> refs) {
+        int[] parserState = new int[1024 * 1024];
+        SafeOpt<Integer> parsed = start.apply("10").map(Integer::parseInt);
+        refs.add(new WeakReference<>(parserState));
+        refs.add(new WeakReference<>(parsed));
+        return parsed.map(m -> m + parserState.length - parserState.length);
+    }
+
+    @Test
+    public void testLazyReleasesChain() throws InterruptedException {
+        for (Function<String, SafeOpt<String>> start : new Function[]{
+            (Function<String, SafeOpt<String>>) SafeOpt::ofLazy,
+            (Function<String, SafeOpt<String>>) SafeOpt::ofLazyFused,
+            (Function<String, SafeOpt<String>>) SafeOpt::ofLazyConfined}) {
+            List<WeakReference<Object>> refs = new ArrayList<>();
+            SafeOpt<Integer> lazy = lazyWithState(start, refs);
+            assertThat(lazy.orNull()).isEqualTo(10);
+            for (int i = 0; i < 50 && refs.stream().anyMatch(ref -> ref.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertThat(refs).allMatch(ref -> ref.get() == null);
+            assertThat(lazy.orNull()).isEqualTo(10);
+        }
+    }
+
     @Test
     public void testAsync() {
         Collection<String> states1 = new LinkedBlockingDeque<>();
@@ -480,6 +1337,7 @@ public class SafeOptTest {
                     val3.throwAnyOrNull();
                 }
                 );
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();// done waiting, cancellation does not reach it
 //        pool.shutdown();
     }
 
@@ -588,6 +1446,7 @@ public class SafeOptTest {
                     val3.throwAnyOrNull();
                 }
                 );
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();// done waiting, cancellation does not reach it
 //        pool.shutdown();
     }
 
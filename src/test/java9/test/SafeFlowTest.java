@@ -0,0 +1,139 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lt.lb.uncheckedutils.PassableException;
+import lt.lb.uncheckedutils.SafeOpt;
+import lt.lb.uncheckedutils.concurrent.SafeFlow;
+import lt.lb.uncheckedutils.concurrent.SafeScope;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.Test;
+
+/**
+ *
+ * @author laim0nas100
+ */
+public class SafeFlowTest {
+
+    public static class Recorder<T> implements Flow.Subscriber<SafeOpt<T>> {
+
+        public final ConcurrentLinkedQueue<SafeOpt<T>> received = new ConcurrentLinkedQueue<>();
+        public final CountDownLatch done = new CountDownLatch(1);
+        public final long initial;
+        public final boolean requestMore;
+        public volatile Flow.Subscription subscription;
+        public volatile Throwable error;
+        public volatile boolean completed;
+
+        public Recorder(long initial, boolean requestMore) {
+            this.initial = initial;
+            this.requestMore = requestMore;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initial);
+        }
+
+        @Override
+        public void onNext(SafeOpt<T> item) {
+            received.add(item);
+            if (requestMore) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void testMapAsync() throws InterruptedException {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        Recorder<Integer> recorder = new Recorder<>(1, true);
+        SafeFlow.mapAsync(new SafeScope(), items, m -> {
+            if (m % 10 == 0) {
+                throw new PassableException("fail " + m);
+            }
+            return m;
+        }).subscribe(recorder);
+        assertThat(recorder.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(recorder.completed).isTrue();
+        assertThat(recorder.error).isNull();
+        assertThat(recorder.received).hasSize(100);
+        assertThat(recorder.received.stream().filter(SafeOpt::hasError)).hasSize(10);
+        assertThat(recorder.received.stream().filter(SafeOpt::isPresent).map(SafeOpt::get)).doesNotHaveDuplicates().hasSize(90);
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        AtomicInteger started = new AtomicInteger();
+        Recorder<Integer> recorder = new Recorder<>(5, false);
+        SafeFlow.mapAsync(new SafeScope(), items, m -> {
+            started.incrementAndGet();
+            return m;
+        }).subscribe(recorder);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (recorder.received.size() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertThat(recorder.received).hasSize(5);
+        assertThat(started.get()).isEqualTo(5);
+        assertThat(recorder.completed).isFalse();
+
+        recorder.subscription.cancel();
+        recorder.subscription.request(10);
+        Thread.sleep(100);
+        assertThat(recorder.received).hasSize(5);
+        assertThat(started.get()).isEqualTo(5);
+    }
+
+    @Test
+    public void testOfCompletions() throws InterruptedException {
+        List<SafeOpt<Integer>> sources = Arrays.asList(
+                SafeOpt.of(1),
+                SafeOpt.error(new PassableException("err")),
+                SafeOpt.ofLazy(2).map(m -> m * 2),
+                SafeOpt.empty(),
+                SafeOpt.ofAsync(3).map(m -> m * 3)
+        );
+        Recorder<Integer> recorder = new Recorder<>(Long.MAX_VALUE, false);
+        SafeFlow.ofCompletions(sources).subscribe(recorder);
+        assertThat(recorder.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(recorder.completed).isTrue();
+        assertThat(recorder.received).hasSize(5);
+        assertThat(recorder.received.stream().filter(SafeOpt::isPresent).map(SafeOpt::get)).containsExactlyInAnyOrder(1, 4, 9);
+        assertThat(recorder.received.stream().filter(SafeOpt::hasError)).hasSize(1);
+
+        Recorder<Integer> bad = new Recorder<>(0, false);
+        SafeFlow.ofCompletions(sources).subscribe(bad);
+        assertThat(bad.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(bad.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bad.received).isEmpty();
+    }
+
+}